@@ -0,0 +1,71 @@
+package com.enterprise.workflow.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-your-writes over lagging replicas: only read requests may use a replica,
+ * and not those from a user within the configured window after their last
+ * write, which stay on the primary database.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ReplicaProperties properties;
+    private final Map<String, Long> lastWriteAt = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String username = currentUsername();
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        if (write && username != null)
+            lastWriteAt.put(username, System.currentTimeMillis());
+        if (!write && !recentlyWrote(username))
+            ReplicaRoutingDataSource.allowReplica();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        String username = currentUsername();
+        // The window starts when the write is visible on the primary, i.e. after it committed
+        if (!READ_METHODS.contains(request.getMethod()) && username != null)
+            lastWriteAt.put(username, System.currentTimeMillis());
+        ReplicaRoutingDataSource.clear();
+    }
+
+    private boolean recentlyWrote(String username) {
+        if (username == null)
+            return false;
+        Long writtenAt = lastWriteAt.get(username);
+        if (writtenAt == null)
+            return false;
+        if (System.currentTimeMillis() - writtenAt > properties.getReadYourWritesMs()) {
+            lastWriteAt.remove(username, writtenAt);
+            return false;
+        }
+        return true;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken)
+            return null;
+        return authentication.getName();
+    }
+}
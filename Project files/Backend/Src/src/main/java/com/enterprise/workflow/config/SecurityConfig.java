@@ -2,6 +2,7 @@ package com.enterprise.workflow.config;
 
 import org.springframework.http.HttpMethod;
 
+import com.enterprise.workflow.controller.WorkflowInstanceController;
 import com.enterprise.workflow.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -66,6 +67,7 @@ public class SecurityConfig {
         // default ports
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type"));
+        configuration.setExposedHeaders(List.of(WorkflowInstanceController.NEXT_CURSOR_HEADER));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
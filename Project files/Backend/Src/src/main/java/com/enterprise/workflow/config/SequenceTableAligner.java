@@ -0,0 +1,68 @@
+package com.enterprise.workflow.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The high-volume tables use pooled sequence generators instead of AUTO_INCREMENT
+ * so that Hibernate can batch their inserts. MySQL has no sequences, so each
+ * generator is backed by a one-row {@code <table>_seq} table that starts at 1
+ * when the schema update creates it. Before anything is inserted, the stored
+ * value is raised past the largest existing id so that pre-existing rows never
+ * collide with newly allocated blocks.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class SequenceTableAligner {
+
+    // Must match allocationSize on the entities' @SequenceGenerator
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final List<String> TABLES = List.of("workflow_instances", "workflow_step_visits",
+            "workflow_daily_stats", "audit_logs", "notifications", "workflow_approvals", "outbox_events");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void align() {
+        Set<String> sequenceTables = findSequenceTables();
+        for (String table : TABLES) {
+            String sequenceTable = table + "_seq";
+            // Databases with native sequences have no backing table to fix up
+            if (!sequenceTables.contains(sequenceTable))
+                continue;
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            // The pooled optimizer treats the stored value as the top of the next block
+            long floor = maxId + ALLOCATION_SIZE + 1;
+            int updated = jdbcTemplate.update("UPDATE " + sequenceTable + " SET next_val = ? WHERE next_val < ?",
+                    floor, floor);
+            if (updated > 0)
+                System.out.println("Advanced " + sequenceTable + " past existing id " + maxId);
+        }
+    }
+
+    private Set<String> findSequenceTables() {
+        return jdbcTemplate.execute((ConnectionCallback<Set<String>>) connection -> {
+            Set<String> names = new HashSet<>();
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, "%", new String[] { "TABLE" })) {
+                while (tables.next()) {
+                    names.add(tables.getString("TABLE_NAME").toLowerCase(Locale.ROOT));
+                }
+            }
+            return names;
+        });
+    }
+}
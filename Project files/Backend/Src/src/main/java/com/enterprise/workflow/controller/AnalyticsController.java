@@ -3,12 +3,17 @@ package com.enterprise.workflow.controller;
 import com.enterprise.workflow.dto.AnalyticsResponse;
 import com.enterprise.workflow.service.AnalyticsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/admin/analytics")
 @RequiredArgsConstructor
@@ -18,7 +23,22 @@ public class AnalyticsController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    public ResponseEntity<AnalyticsResponse> getAnalytics() {
-        return ResponseEntity.ok(analyticsService.getSystemAnalytics());
+    public ResponseEntity<AnalyticsResponse> getAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long workflowId) {
+        return ResponseEntity.ok(analyticsService.getAnalytics(from, to, workflowId));
+    }
+
+    @GetMapping("/full-scan")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AnalyticsResponse> getFullScanAnalytics() {
+        return ResponseEntity.ok(analyticsService.getFullScanAnalytics());
+    }
+
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(analyticsService.getCacheStats());
     }
 }
@@ -3,11 +3,12 @@ package com.enterprise.workflow.controller;
 import com.enterprise.workflow.entity.FileAttachment;
 import com.enterprise.workflow.entity.User;
 import com.enterprise.workflow.entity.WorkflowInstance;
+import com.enterprise.workflow.event.FileUploaded;
 import com.enterprise.workflow.repository.FileAttachmentRepository;
 import com.enterprise.workflow.repository.UserRepository;
 import com.enterprise.workflow.repository.WorkflowInstanceRepository;
 import com.enterprise.workflow.service.FileStorageService;
-import com.enterprise.workflow.service.AuditLogService;
+import com.enterprise.workflow.service.OutboxService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
@@ -16,6 +17,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -32,7 +34,8 @@ public class FileController {
         private final FileAttachmentRepository fileAttachmentRepository;
         private final WorkflowInstanceRepository workflowInstanceRepository;
         private final UserRepository userRepository;
-        private final AuditLogService auditLogService;
+        private final OutboxService outboxService;
+        private final TransactionTemplate transactionTemplate;
 
         @GetMapping("/health")
         public ResponseEntity<String> healthCheck() {
@@ -77,13 +80,14 @@ public class FileController {
                                 .uploadedBy(user)
                                 .build();
 
-                FileAttachment savedAttachment = fileAttachmentRepository.save(attachment);
+                FileAttachment savedAttachment = transactionTemplate.execute(tx -> {
+                        FileAttachment saved = fileAttachmentRepository.save(attachment);
+                        outboxService.publish(new FileUploaded(instanceId, user.getFullName(), user.getRole().name(),
+                                        originalFileName));
+                        return saved;
+                });
                 System.out.println("Saved attachment to DB with ID: " + savedAttachment.getId());
 
-                auditLogService.log("UPLOAD_FILE", user,
-                                String.format("Uploaded file '%s' for Instance ID %d", attachment.getFileName(),
-                                                instanceId));
-
                 return ResponseEntity.ok(mapToResponse(savedAttachment));
         }
 
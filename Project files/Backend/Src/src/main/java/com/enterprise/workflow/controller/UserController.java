@@ -6,6 +6,8 @@ import com.enterprise.workflow.dto.UserDTO;
 import com.enterprise.workflow.entity.User;
 import com.enterprise.workflow.repository.UserRepository;
 import com.enterprise.workflow.config.JwtService;
+import com.enterprise.workflow.service.InstanceSearchIndex;
+import com.enterprise.workflow.service.WorkloadIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -14,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 import com.enterprise.workflow.entity.Role;
 import java.util.Map;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @RestController
@@ -25,6 +28,8 @@ public class UserController {
     private final UserRepository userRepository;
     private final JwtService jwtService;
     private final PasswordEncoder passwordEncoder;
+    private final WorkloadIndex workloadIndex;
+    private final InstanceSearchIndex searchIndex;
 
     @GetMapping("/profile")
     public ResponseEntity<UserDTO> getProfile(@RequestHeader("Authorization") String token) {
@@ -48,6 +53,7 @@ public class UserController {
         String username = jwtService.extractUsername(token.substring(7));
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        String previousFullName = user.getFullName();
 
         if (request.getFullName() != null && !request.getFullName().isBlank()) {
             user.setFullName(request.getFullName());
@@ -58,6 +64,8 @@ public class UserController {
         }
 
         User updatedUser = userRepository.save(user);
+        if (!Objects.equals(previousFullName, updatedUser.getFullName()))
+            searchIndex.reindexApplicant(updatedUser.getId());
 
         return ResponseEntity.ok(UserDTO.builder()
                 .id(updatedUser.getId())
@@ -93,6 +101,7 @@ public class UserController {
                 .build();
 
         userRepository.save(newUser);
+        workloadIndex.userSaved(newUser);
 
         return ResponseEntity.ok("User created successfully");
     }
@@ -101,6 +110,7 @@ public class UserController {
     public ResponseEntity<?> updateUser(@PathVariable Long id, @RequestBody java.util.Map<String, Object> updates) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        String previousFullName = user.getFullName();
 
         if (updates.containsKey("fullName")) {
             user.setFullName((String) updates.get("fullName"));
@@ -120,6 +130,9 @@ public class UserController {
         }
 
         userRepository.save(user);
+        workloadIndex.userSaved(user);
+        if (!Objects.equals(previousFullName, user.getFullName()))
+            searchIndex.reindexApplicant(user.getId());
 
         return ResponseEntity.ok(UserDTO.builder()
                 .id(user.getId())
@@ -135,6 +148,7 @@ public class UserController {
             return ResponseEntity.notFound().build();
         }
         userRepository.deleteById(id);
+        workloadIndex.userRemoved(id);
         return ResponseEntity.ok().build();
     }
 }
@@ -5,6 +5,7 @@ import com.enterprise.workflow.dto.WorkflowResponse;
 import com.enterprise.workflow.service.WorkflowService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
@@ -29,4 +30,21 @@ public class WorkflowController {
     public ResponseEntity<List<WorkflowResponse>> getAllWorkflows() {
         return ResponseEntity.ok(service.getAllWorkflows());
     }
+
+    @PostMapping("/{id}/steps")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<WorkflowResponse> addStep(
+            @PathVariable Long id,
+            @RequestBody WorkflowRequest.StepDefinition step) {
+        return ResponseEntity.ok(service.addStep(id, step));
+    }
+
+    @PutMapping("/{id}/steps/{stepId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<WorkflowResponse> updateStep(
+            @PathVariable Long id,
+            @PathVariable Long stepId,
+            @RequestBody WorkflowRequest.StepDefinition step) {
+        return ResponseEntity.ok(service.updateStep(id, stepId, step));
+    }
 }
@@ -1,15 +1,22 @@
 package com.enterprise.workflow.controller;
 
+import com.enterprise.workflow.dto.BulkActionRequest;
+import com.enterprise.workflow.dto.BulkActionResult;
+import com.enterprise.workflow.dto.CursorPage;
 import com.enterprise.workflow.dto.WorkflowInstanceRequest;
 import com.enterprise.workflow.dto.WorkflowInstanceResponse;
 import com.enterprise.workflow.entity.WorkflowStatus;
+import com.enterprise.workflow.service.InstanceExportService;
 import com.enterprise.workflow.service.WorkflowInstanceService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -21,7 +28,10 @@ import org.springframework.format.annotation.DateTimeFormat;
 @RequiredArgsConstructor
 public class WorkflowInstanceController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final WorkflowInstanceService service;
+    private final InstanceExportService exportService;
 
     @PostMapping
     public ResponseEntity<WorkflowInstanceResponse> submit(
@@ -32,8 +42,10 @@ public class WorkflowInstanceController {
 
     @GetMapping("/my")
     public ResponseEntity<List<WorkflowInstanceResponse>> getMyInstances(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
             @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(service.getMyInstances(userDetails.getUsername()));
+        return pageResponse(service.getMyInstances(userDetails.getUsername(), cursor, size));
     }
 
     @GetMapping("/all")
@@ -41,8 +53,24 @@ public class WorkflowInstanceController {
             @RequestParam(required = false) WorkflowStatus status,
             @RequestParam(required = false) String owner,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
-            @RequestParam(required = false) String query) {
-        return ResponseEntity.ok(service.getAllInstances(status, owner, date, query));
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return pageResponse(service.getAllInstances(status, owner, date, query, cursor, size));
+    }
+
+    // Bulk export for reporting: rows are streamed from a database cursor as NDJSON or CSV
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) WorkflowStatus status) {
+        InstanceExportService.Format exportFormat = InstanceExportService.Format.valueOf(format.toUpperCase());
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"workflow-instances." + exportFormat.getExtension() + "\"")
+                .body(out -> exportService.export(exportFormat, status, out));
     }
 
     @PutMapping("/{id}/status")
@@ -55,6 +83,23 @@ public class WorkflowInstanceController {
         return ResponseEntity.ok(service.updateStatus(id, status, remarks, userDetails.getUsername()));
     }
 
+    // Per-id outcomes are returned; ids that fail a check do not block the rest
+    @PostMapping("/bulk/status")
+    public ResponseEntity<List<BulkActionResult>> bulkUpdateStatus(
+            @RequestBody BulkActionRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(service.bulkUpdateStatus(request.getIds(), request.getStatus(),
+                request.getRemarks(), userDetails.getUsername()));
+    }
+
+    @PostMapping("/bulk/assign")
+    public ResponseEntity<List<BulkActionResult>> bulkAssign(
+            @RequestBody BulkActionRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(service.bulkAssign(request.getIds(), request.getAssignedTo(),
+                userDetails.getUsername()));
+    }
+
     @PostMapping("/{id}/assign")
     public ResponseEntity<WorkflowInstanceResponse> assignTask(
             @PathVariable Long id,
@@ -64,6 +109,14 @@ public class WorkflowInstanceController {
         return ResponseEntity.ok(service.assignTask(id, assignedTo, userDetails.getUsername()));
     }
 
+    // Pulls the next tasks off the shared queue and leases them to the caller
+    @PostMapping("/claim")
+    public ResponseEntity<List<WorkflowInstanceResponse>> claimNext(
+            @RequestParam(defaultValue = "1") int count,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(service.claimNext(count, userDetails.getUsername()));
+    }
+
     @PutMapping("/{id}/details")
     public ResponseEntity<WorkflowInstanceResponse> updateTaskDetails(
             @PathVariable Long id,
@@ -85,7 +138,18 @@ public class WorkflowInstanceController {
 
     @GetMapping("/assigned")
     public ResponseEntity<List<WorkflowInstanceResponse>> getAssignedTasks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
             @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(service.getAssignedTasks(userDetails.getUsername()));
+        return pageResponse(service.getAssignedTasks(userDetails.getUsername(), cursor, size));
+    }
+
+    // The body stays a plain list for existing clients; the next page token travels in a header
+    private ResponseEntity<List<WorkflowInstanceResponse>> pageResponse(CursorPage<WorkflowInstanceResponse> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 }
@@ -5,6 +5,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import com.enterprise.workflow.entity.Role;
+
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -18,6 +21,7 @@ public class AnalyticsResponse {
     private List<WorkflowPerformance> performance;
     private List<DailyTrend> trends;
     private Map<String, Long> statusDistribution;
+    private List<StepDwellTime> stepDwellTimes;
 
     @Data
     @Builder
@@ -38,7 +42,11 @@ public class AnalyticsResponse {
         private String workflowTitle;
         private long completedCount;
         private double averageTimeHours;
-        private String bottleneckRisk; // "HIGH" if > X hours
+        private long p50Seconds;
+        private long p90Seconds;
+        private long p99Seconds;
+        private long maxSeconds;
+        private String bottleneckRisk; // based on p90 completion time
     }
 
     @Data
@@ -46,8 +54,22 @@ public class AnalyticsResponse {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class DailyTrend {
-        private String date;
+        private LocalDate day;
+        private String date; // display label, e.g. "Mar 05"
         private long completedCount;
         private long submittedCount;
     }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StepDwellTime {
+        private Role requiredRole;
+        private String stepName;
+        private long completedVisits;
+        private long currentlyWaiting;
+        private double averageDwellHours;
+        private long p95DwellSeconds;
+    }
 }
@@ -0,0 +1,20 @@
+package com.enterprise.workflow.dto;
+
+import com.enterprise.workflow.entity.WorkflowStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkActionRequest {
+    private List<Long> ids;
+    private WorkflowStatus status; // Bulk status change
+    private String remarks;
+    private String assignedTo; // Bulk reassignment: username of the new assignee
+}
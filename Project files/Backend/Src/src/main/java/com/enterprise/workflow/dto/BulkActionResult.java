@@ -0,0 +1,24 @@
+package com.enterprise.workflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkActionResult {
+    private Long id;
+    private boolean success;
+    private String message; // Failure reason; null on success
+
+    public static BulkActionResult ok(Long id) {
+        return new BulkActionResult(id, true, null);
+    }
+
+    public static BulkActionResult failed(Long id, String message) {
+        return new BulkActionResult(id, false, message);
+    }
+}
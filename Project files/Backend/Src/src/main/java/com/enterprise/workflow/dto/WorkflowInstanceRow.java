@@ -0,0 +1,25 @@
+package com.enterprise.workflow.dto;
+
+import com.enterprise.workflow.entity.Priority;
+import com.enterprise.workflow.entity.WorkflowStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of the columns instance list views need, selected with the
+ * joined workflow title, user names and step name instead of managed entities.
+ */
+public record WorkflowInstanceRow(
+        Long id,
+        String workflowTitle,
+        String applicantName,
+        WorkflowStatus status,
+        String remarks,
+        String description,
+        LocalDateTime submittedAt,
+        LocalDateTime updatedAt,
+        String assignedToName,
+        Priority priority,
+        LocalDateTime dueDate,
+        String currentStepName) {
+}
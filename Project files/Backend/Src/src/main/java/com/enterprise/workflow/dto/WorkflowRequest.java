@@ -4,6 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import com.enterprise.workflow.entity.Role;
+
+import java.util.List;
 
 @Data
 @Builder
@@ -12,4 +15,16 @@ import lombok.NoArgsConstructor;
 public class WorkflowRequest {
     private String title;
     private String description;
+    private List<StepDefinition> steps;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class StepDefinition {
+        private String name;
+        private Role requiredRole;
+        private Integer stepOrder; // Defaults to the position in the list; equal orders run in parallel
+        private Integer approvalsRequired; // Defaults to 1
+    }
 }
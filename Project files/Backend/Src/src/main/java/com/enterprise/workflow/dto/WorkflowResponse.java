@@ -4,8 +4,10 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import com.enterprise.workflow.entity.Role;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Builder
@@ -17,4 +19,17 @@ public class WorkflowResponse {
     private String description;
     private String createdBy;
     private LocalDateTime createdAt;
+    private List<StepResponse> steps;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class StepResponse {
+        private Long id;
+        private String name;
+        private Role requiredRole;
+        private Integer stepOrder;
+        private Integer approvalsRequired;
+    }
 }
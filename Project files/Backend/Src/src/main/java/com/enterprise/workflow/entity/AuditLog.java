@@ -13,11 +13,16 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        // Keyset pages: optional equality filter, then (timestamp, id) for order and cursor
+        @Index(name = "idx_audit_logs_timestamp", columnList = "timestamp"),
+        @Index(name = "idx_audit_logs_action_timestamp", columnList = "action, timestamp, id"),
+        @Index(name = "idx_audit_logs_actor_timestamp", columnList = "actor_name, timestamp, id") })
 public class AuditLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_logs_seq")
+    @SequenceGenerator(name = "audit_logs_seq", sequenceName = "audit_logs_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -35,8 +40,10 @@ public class AuditLog {
     @Column(nullable = false)
     private LocalDateTime timestamp;
 
+    // Entries delivered from the outbox keep the time of the event
     @PrePersist
     protected void onCreate() {
-        timestamp = LocalDateTime.now();
+        if (timestamp == null)
+            timestamp = LocalDateTime.now();
     }
 }
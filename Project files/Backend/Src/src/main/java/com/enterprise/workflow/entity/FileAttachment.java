@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "file_attachments")
+@Table(name = "file_attachments", indexes = @Index(name = "idx_attachments_instance", columnList = "instance_id"))
 public class FileAttachment {
 
     @Id
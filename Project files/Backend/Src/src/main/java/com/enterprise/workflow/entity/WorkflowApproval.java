@@ -0,0 +1,48 @@
+package com.enterprise.workflow.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One user's approval of one step of an instance, counted towards the step's
+ * quorum. The unique key stops the same approver from being counted twice.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "workflow_approvals", uniqueConstraints = @UniqueConstraint(name = "uk_approvals_instance_step_approver", columnNames = {
+        "instance_id", "step_id", "approver_id" }))
+public class WorkflowApproval {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workflow_approvals_seq")
+    @SequenceGenerator(name = "workflow_approvals_seq", sequenceName = "workflow_approvals_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "instance_id", nullable = false)
+    private WorkflowInstance instance;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "step_id", nullable = false)
+    private WorkflowStep step;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "approver_id", nullable = false)
+    private User approver;
+
+    @Column(nullable = false)
+    private LocalDateTime approvedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        approvedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,56 @@
+package com.enterprise.workflow.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Daily rollup of workflow instances per (day, workflow, status). Submissions are
+ * counted on the day they were submitted and completions on the day they were
+ * decided, both under the instance's current status.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "workflow_daily_stats", uniqueConstraints = @UniqueConstraint(name = "uk_daily_stats_day_workflow_status", columnNames = {
+        "stat_date", "workflow_id", "status" }))
+public class WorkflowDailyStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workflow_daily_stats_seq")
+    @SequenceGenerator(name = "workflow_daily_stats_seq", sequenceName = "workflow_daily_stats_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "workflow_id", nullable = false)
+    private Long workflowId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WorkflowStatus status;
+
+    @Column(nullable = false)
+    private long submittedCount;
+
+    @Column(nullable = false)
+    private long completedCount;
+
+    @Column(nullable = false)
+    private long durationSeconds; // Sum of completion times for completedCount
+
+    @Column(nullable = false)
+    private long maxDurationSeconds;
+
+    // LatencyHistogram#toBytes of the completion times, so ranged reports can merge percentiles
+    @Lob
+    @Column(name = "latency_histogram", length = 65535)
+    private byte[] latencyHistogram;
+}
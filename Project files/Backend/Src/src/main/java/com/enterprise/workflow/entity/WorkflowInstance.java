@@ -5,19 +5,32 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "workflow_instances")
+@Table(name = "workflow_instances", indexes = {
+        // Keyset list pages: equality filter, then (submitted_at, id) for order and cursor
+        @Index(name = "idx_instances_user_submitted", columnList = "user_id, submitted_at, id"),
+        @Index(name = "idx_instances_assignee_submitted", columnList = "assigned_to, submitted_at, id"),
+        @Index(name = "idx_instances_status_submitted", columnList = "status, submitted_at, id"),
+        @Index(name = "idx_instances_submitted", columnList = "submitted_at, id"),
+        // Completion-by-day analytics and rollups
+        @Index(name = "idx_instances_status_updated", columnList = "status, updated_at"),
+        // Work-queue claims read unassigned pending rows in (priority, due_date) order
+        @Index(name = "idx_instances_queue", columnList = "status, assigned_to, priority, due_date"),
+        @Index(name = "idx_instances_claim_expiry", columnList = "claim_expires_at") })
 public class WorkflowInstance {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workflow_instances_seq")
+    @SequenceGenerator(name = "workflow_instances_seq", sequenceName = "workflow_instances_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -51,18 +64,32 @@ public class WorkflowInstance {
 
     private LocalDateTime dueDate;
 
+    // Set while assignedTo holds a work-queue claim; the instance returns to the queue after it
+    private LocalDateTime claimExpiresAt;
+
+    // When the overdue escalation for the current dueDate ran; cleared when the due date moves
+    private LocalDateTime escalatedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "current_step_id")
     private WorkflowStep currentStep;
 
+    // Optimistic lock; the default backfills rows that predate the column
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Timestamps are kept at the column's microsecond precision so that keyset
+    // cursors built from in-memory entities match the stored values exactly.
     @PrePersist
     protected void onCreate() {
-        submittedAt = LocalDateTime.now();
+        submittedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         status = WorkflowStatus.PENDING;
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
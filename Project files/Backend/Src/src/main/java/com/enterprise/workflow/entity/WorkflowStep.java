@@ -5,7 +5,14 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
+/**
+ * One approval step of a workflow. Steps run in {@code stepOrder}; steps that
+ * share an order form a stage whose branches run in parallel, and the stage is
+ * done once every branch has {@code approvalsRequired} approvals from distinct
+ * users holding its {@code requiredRole}.
+ */
 @Data
 @Builder
 @NoArgsConstructor
@@ -31,4 +38,10 @@ public class WorkflowStep {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private Role requiredRole;
+
+    // Quorum for this branch, e.g. 2 for "two of the managers"
+    @Builder.Default
+    @ColumnDefault("1")
+    @Column(nullable = false)
+    private Integer approvalsRequired = 1;
 }
@@ -0,0 +1,40 @@
+package com.enterprise.workflow.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stay of an instance at a workflow step; {@code exitedAt} stays null while
+ * the instance is still waiting at the step.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "workflow_step_visits", indexes = @Index(name = "idx_step_visits_instance_open", columnList = "instance_id, exited_at, entered_at"))
+public class WorkflowStepVisit {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workflow_step_visits_seq")
+    @SequenceGenerator(name = "workflow_step_visits_seq", sequenceName = "workflow_step_visits_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "instance_id", nullable = false)
+    private WorkflowInstance instance;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "step_id", nullable = false)
+    private WorkflowStep step;
+
+    @Column(nullable = false)
+    private LocalDateTime enteredAt;
+
+    private LocalDateTime exitedAt;
+}
@@ -0,0 +1,16 @@
+package com.enterprise.workflow.event;
+
+/**
+ * Something that happened to a workflow instance, recorded in the outbox in the
+ * same transaction as the change itself and handed to the audit, notification
+ * and analytics consumers afterwards. Events carry what the consumers need as
+ * it was at the time, so dispatching them never reads the instance again.
+ */
+public interface DomainEvent {
+
+    Long instanceId();
+
+    String actorName();
+
+    String actorRole();
+}
@@ -0,0 +1,5 @@
+package com.enterprise.workflow.event;
+
+public record FileUploaded(Long instanceId, String actorName, String actorRole, String fileName)
+        implements DomainEvent {
+}
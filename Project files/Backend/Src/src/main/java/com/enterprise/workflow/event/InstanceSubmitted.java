@@ -0,0 +1,5 @@
+package com.enterprise.workflow.event;
+
+public record InstanceSubmitted(Long instanceId, String actorName, String actorRole, String workflowTitle,
+        Long assigneeId) implements DomainEvent {
+}
@@ -0,0 +1,8 @@
+package com.enterprise.workflow.event;
+
+import java.time.LocalDateTime;
+
+// recipientId is the assignee, or the owner while nobody holds the task
+public record ReminderDue(Long instanceId, String actorName, String actorRole, Long recipientId,
+        String workflowTitle, LocalDateTime dueDate) implements DomainEvent {
+}
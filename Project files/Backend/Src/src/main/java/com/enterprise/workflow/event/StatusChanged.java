@@ -0,0 +1,8 @@
+package com.enterprise.workflow.event;
+
+import com.enterprise.workflow.entity.WorkflowStatus;
+
+// detail is the audit line, which differs between direct and step decisions
+public record StatusChanged(Long instanceId, String actorName, String actorRole, Long ownerId,
+        String workflowTitle, WorkflowStatus status, String remarks, String detail) implements DomainEvent {
+}
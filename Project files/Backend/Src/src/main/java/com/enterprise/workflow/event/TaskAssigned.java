@@ -0,0 +1,5 @@
+package com.enterprise.workflow.event;
+
+public record TaskAssigned(Long instanceId, String actorName, String actorRole, Long assigneeId,
+        String assigneeName, String workflowTitle) implements DomainEvent {
+}
@@ -0,0 +1,9 @@
+package com.enterprise.workflow.event;
+
+import java.time.LocalDateTime;
+
+// The assignee ids are null when nobody held the task before or could take it after
+public record TaskEscalated(Long instanceId, String actorName, String actorRole, Long ownerId,
+        Long previousAssigneeId, String previousAssigneeName, Long assigneeId, String assigneeName,
+        String workflowTitle, LocalDateTime dueDate) implements DomainEvent {
+}
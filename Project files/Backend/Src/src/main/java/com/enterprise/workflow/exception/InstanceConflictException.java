@@ -0,0 +1,21 @@
+package com.enterprise.workflow.exception;
+
+import com.enterprise.workflow.dto.WorkflowInstanceResponse;
+
+/**
+ * Thrown when a workflow instance was changed by someone else while a request
+ * was updating it, and the change could not be safely re-applied.
+ */
+public class InstanceConflictException extends RuntimeException {
+
+    private final WorkflowInstanceResponse current;
+
+    public InstanceConflictException(String message, WorkflowInstanceResponse current) {
+        super(message);
+        this.current = current;
+    }
+
+    public WorkflowInstanceResponse getCurrent() {
+        return current;
+    }
+}
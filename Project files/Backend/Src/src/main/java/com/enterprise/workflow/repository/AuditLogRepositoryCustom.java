@@ -0,0 +1,19 @@
+package com.enterprise.workflow.repository;
+
+import com.enterprise.workflow.entity.AuditLog;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AuditLogRepositoryCustom {
+
+    /**
+     * Returns up to {@code limit} entries ordered by timestamp then id, both
+     * descending, that come strictly after the given keyset position (or from
+     * the newest when it is null). Null filters are ignored; {@code from} is
+     * inclusive and {@code to} exclusive, so a month is {@code [first day, first
+     * day of next month)} and only touches that month's partition.
+     */
+    List<AuditLog> findPage(LocalDateTime from, LocalDateTime to, String action, String actorName,
+            LocalDateTime afterTimestamp, Long afterId, int limit);
+}
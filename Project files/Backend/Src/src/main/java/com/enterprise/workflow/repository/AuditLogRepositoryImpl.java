@@ -0,0 +1,52 @@
+package com.enterprise.workflow.repository;
+
+import com.enterprise.workflow.entity.AuditLog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AuditLogRepositoryImpl implements AuditLogRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AuditLog> findPage(LocalDateTime from, LocalDateTime to, String action, String actorName,
+            LocalDateTime afterTimestamp, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AuditLog> query = cb.createQuery(AuditLog.class);
+        Root<AuditLog> root = query.from(AuditLog.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (from != null)
+            predicates.add(cb.greaterThanOrEqualTo(root.get("timestamp"), from));
+        if (to != null)
+            predicates.add(cb.lessThan(root.get("timestamp"), to));
+        if (action != null)
+            predicates.add(cb.equal(root.get("action"), action));
+        if (actorName != null)
+            predicates.add(cb.equal(root.get("actorName"), actorName));
+        if (afterTimestamp != null && afterId != null) {
+            // Row-value comparison (timestamp, id) < (:timestamp, :id), spelled out for JPA
+            predicates.add(cb.or(
+                    cb.lessThan(root.get("timestamp"), afterTimestamp),
+                    cb.and(cb.equal(root.get("timestamp"), afterTimestamp),
+                            cb.lessThan(root.get("id"), afterId))));
+        }
+
+        query.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(root.get("timestamp")), cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -2,10 +2,17 @@ package com.enterprise.workflow.repository;
 
 import com.enterprise.workflow.entity.FileAttachment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface FileAttachmentRepository extends JpaRepository<FileAttachment, Long> {
     List<FileAttachment> findByInstanceId(Long instanceId);
+
+    @Query("SELECT fa FROM FileAttachment fa JOIN FETCH fa.uploadedBy WHERE fa.instance.id IN :instanceIds "
+            + "ORDER BY fa.uploadedAt")
+    List<FileAttachment> findByInstanceIdIn(@Param("instanceIds") Collection<Long> instanceIds);
 }
@@ -1,9 +1,12 @@
 package com.enterprise.workflow.repository;
 
+import com.enterprise.workflow.entity.Role;
 import com.enterprise.workflow.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +14,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
     boolean existsByUsername(String username);
+
+    @Query("SELECT u.id AS id, u.role AS role FROM User u")
+    List<UserRole> findAllRoles();
+
+    interface UserRole {
+        Long getId();
+
+        Role getRole();
+    }
 }
@@ -0,0 +1,17 @@
+package com.enterprise.workflow.repository;
+
+import com.enterprise.workflow.entity.WorkflowApproval;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WorkflowApprovalRepository extends JpaRepository<WorkflowApproval, Long> {
+
+    @Query("SELECT a FROM WorkflowApproval a WHERE a.instance.id IN :instanceIds")
+    List<WorkflowApproval> findByInstanceIdIn(@Param("instanceIds") Collection<Long> instanceIds);
+}
@@ -0,0 +1,89 @@
+package com.enterprise.workflow.repository;
+
+import com.enterprise.workflow.entity.WorkflowDailyStat;
+import com.enterprise.workflow.entity.WorkflowStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface WorkflowDailyStatRepository extends JpaRepository<WorkflowDailyStat, Long> {
+
+    @Query("SELECT MAX(s.statDate) FROM WorkflowDailyStat s")
+    LocalDate findLatestStatDate();
+
+    // Days rolled up before rows carried latency histograms; they are recomputed once
+    @Query("SELECT MIN(s.statDate) FROM WorkflowDailyStat s WHERE s.completedCount > 0 AND s.latencyHistogram IS NULL")
+    LocalDate findEarliestStatDateWithoutHistogram();
+
+    @Modifying
+    @Query("DELETE FROM WorkflowDailyStat s WHERE s.statDate = :day")
+    void deleteByStatDate(@Param("day") LocalDate day);
+
+    @Query("SELECT s.status AS status, SUM(s.submittedCount) AS total FROM WorkflowDailyStat s "
+            + "WHERE s.statDate BETWEEN :from AND :to AND (:workflowId IS NULL OR s.workflowId = :workflowId) "
+            + "GROUP BY s.status")
+    List<StatusTotal> sumByStatus(@Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("workflowId") Long workflowId);
+
+    @Query("SELECT s.workflowId AS workflowId, w.title AS title, SUM(s.submittedCount) AS submittedCount, "
+            + "SUM(s.completedCount) AS completedCount, SUM(s.durationSeconds) AS durationSeconds, "
+            + "MAX(s.maxDurationSeconds) AS maxDurationSeconds "
+            + "FROM WorkflowDailyStat s, Workflow w WHERE w.id = s.workflowId "
+            + "AND s.statDate BETWEEN :from AND :to AND (:workflowId IS NULL OR s.workflowId = :workflowId) "
+            + "GROUP BY s.workflowId, w.title")
+    List<WorkflowTotal> sumByWorkflow(@Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("workflowId") Long workflowId);
+
+    @Query("SELECT s.workflowId AS workflowId, s.latencyHistogram AS latencyHistogram FROM WorkflowDailyStat s "
+            + "WHERE s.statDate BETWEEN :from AND :to AND (:workflowId IS NULL OR s.workflowId = :workflowId) "
+            + "AND s.latencyHistogram IS NOT NULL")
+    List<WorkflowHistogram> findHistograms(@Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("workflowId") Long workflowId);
+
+    @Query("SELECT s.statDate AS statDate, SUM(s.submittedCount) AS submittedCount, "
+            + "SUM(s.completedCount) AS completedCount FROM WorkflowDailyStat s "
+            + "WHERE s.statDate BETWEEN :from AND :to AND (:workflowId IS NULL OR s.workflowId = :workflowId) "
+            + "GROUP BY s.statDate ORDER BY s.statDate")
+    List<DailyTotal> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("workflowId") Long workflowId);
+
+    interface StatusTotal {
+        WorkflowStatus getStatus();
+
+        long getTotal();
+    }
+
+    interface WorkflowTotal {
+        Long getWorkflowId();
+
+        String getTitle();
+
+        long getSubmittedCount();
+
+        long getCompletedCount();
+
+        long getDurationSeconds();
+
+        long getMaxDurationSeconds();
+    }
+
+    interface WorkflowHistogram {
+        Long getWorkflowId();
+
+        byte[] getLatencyHistogram();
+    }
+
+    interface DailyTotal {
+        LocalDate getStatDate();
+
+        long getSubmittedCount();
+
+        long getCompletedCount();
+    }
+}
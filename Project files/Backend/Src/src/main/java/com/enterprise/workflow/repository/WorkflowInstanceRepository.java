@@ -1,17 +1,219 @@
 package com.enterprise.workflow.repository;
 
+import com.enterprise.workflow.dto.WorkflowInstanceRow;
+import com.enterprise.workflow.entity.Priority;
 import com.enterprise.workflow.entity.WorkflowInstance;
+import com.enterprise.workflow.entity.WorkflowStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface WorkflowInstanceRepository
-        extends JpaRepository<WorkflowInstance, Long>, JpaSpecificationExecutor<WorkflowInstance> {
+        extends JpaRepository<WorkflowInstance, Long>, JpaSpecificationExecutor<WorkflowInstance>,
+        WorkflowInstanceRepositoryCustom {
     List<WorkflowInstance> findByUserIdOrderBySubmittedAtDesc(Long userId);
 
     List<WorkflowInstance> findByWorkflowIdOrderBySubmittedAtDesc(Long workflowId);
 
     List<WorkflowInstance> findByAssignedToIdOrderBySubmittedAtDesc(Long assignedToId);
+
+    @Query("SELECT i FROM WorkflowInstance i JOIN FETCH i.workflow JOIN FETCH i.user WHERE i.id IN :ids")
+    List<WorkflowInstance> findAllWithOwnerByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Lapsed work-queue claims go back to the queue; the version bump makes a claimant's
+    // in-flight edit of a released instance fail instead of silently re-taking it
+    @Modifying
+    @Query("UPDATE WorkflowInstance i SET i.assignedTo = NULL, i.claimExpiresAt = NULL, i.version = i.version + 1 "
+            + "WHERE i.status = com.enterprise.workflow.entity.WorkflowStatus.PENDING AND i.claimExpiresAt < :now")
+    int releaseExpiredClaims(@Param("now") LocalDateTime now);
+
+    // Open (undecided) tasks per assignee, for reconciling the in-memory workload index
+    @Query("SELECT i.assignedTo.id AS userId, COUNT(i) AS total FROM WorkflowInstance i "
+            + "WHERE i.assignedTo IS NOT NULL AND i.status IN (com.enterprise.workflow.entity.WorkflowStatus.PENDING, "
+            + "com.enterprise.workflow.entity.WorkflowStatus.CHANGES_REQUESTED) GROUP BY i.assignedTo.id")
+    List<AssigneeCount> countOpenByAssignee();
+
+    // Analytics aggregates: grouping and duration arithmetic run in the database
+    // so callers receive a handful of rows instead of managed entities.
+
+    @Query("SELECT i.status AS status, COUNT(i) AS total FROM WorkflowInstance i GROUP BY i.status")
+    List<StatusCount> countByStatus();
+
+    @Query(value = "SELECT w.id AS workflowId, w.title AS title, COUNT(*) AS instanceCount, "
+            + "SUM(CASE WHEN i.status IN ('APPROVED', 'REJECTED') THEN 1 ELSE 0 END) AS completedCount, "
+            + "SUM(CASE WHEN i.status IN ('APPROVED', 'REJECTED') AND i.updated_at IS NOT NULL "
+            + "THEN 1 ELSE 0 END) AS timedCount, "
+            + "COALESCE(SUM(CASE WHEN i.status IN ('APPROVED', 'REJECTED') AND i.updated_at IS NOT NULL "
+            + "THEN TIMESTAMPDIFF(SECOND, i.submitted_at, i.updated_at) END), 0) AS durationSeconds "
+            + "FROM workflow_instances i JOIN workflows w ON w.id = i.workflow_id "
+            + "GROUP BY w.id, w.title", nativeQuery = true)
+    List<WorkflowStats> aggregateByWorkflow();
+
+    @Query(value = "SELECT DATE(submitted_at) AS statDate, COUNT(*) AS total FROM workflow_instances "
+            + "WHERE submitted_at >= :since GROUP BY DATE(submitted_at)", nativeQuery = true)
+    List<DailyCount> countSubmittedByDay(@Param("since") LocalDateTime since);
+
+    @Query(value = "SELECT DATE(updated_at) AS statDate, COUNT(*) AS total FROM workflow_instances "
+            + "WHERE status IN ('APPROVED', 'REJECTED') AND updated_at >= :since "
+            + "GROUP BY DATE(updated_at)", nativeQuery = true)
+    List<DailyCount> countCompletedByDay(@Param("since") LocalDateTime since);
+
+    @Query(value = "SELECT workflow_id AS workflowId, "
+            + "TIMESTAMPDIFF(SECOND, submitted_at, updated_at) AS durationSeconds, COUNT(*) AS total "
+            + "FROM workflow_instances WHERE status IN ('APPROVED', 'REJECTED') AND updated_at IS NOT NULL "
+            + "GROUP BY workflow_id, TIMESTAMPDIFF(SECOND, submitted_at, updated_at)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<CompletionDuration> streamCompletionDurations();
+
+    // Daily rollup sources: activity days since a watermark, then per-day groups.
+
+    @Query(value = "SELECT DATE(submitted_at) AS statDate FROM workflow_instances "
+            + "WHERE submitted_at >= :since OR updated_at >= :since "
+            + "UNION SELECT DATE(updated_at) AS statDate FROM workflow_instances WHERE updated_at >= :since",
+            nativeQuery = true)
+    List<ActivityDay> findActivityDaysSince(@Param("since") LocalDateTime since);
+
+    @Query(value = "SELECT workflow_id AS workflowId, status AS status, COUNT(*) AS total, "
+            + "0 AS durationSeconds, 0 AS maxDurationSeconds FROM workflow_instances "
+            + "WHERE submitted_at >= :start AND submitted_at < :end GROUP BY workflow_id, status",
+            nativeQuery = true)
+    List<WorkflowStatusCount> countSubmittedBetween(@Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    @Query(value = "SELECT workflow_id AS workflowId, status AS status, COUNT(*) AS total, "
+            + "COALESCE(SUM(TIMESTAMPDIFF(SECOND, submitted_at, updated_at)), 0) AS durationSeconds, "
+            + "COALESCE(MAX(TIMESTAMPDIFF(SECOND, submitted_at, updated_at)), 0) AS maxDurationSeconds "
+            + "FROM workflow_instances WHERE status IN ('APPROVED', 'REJECTED') "
+            + "AND updated_at >= :start AND updated_at < :end GROUP BY workflow_id, status", nativeQuery = true)
+    List<WorkflowStatusCount> countCompletedBetween(@Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    // One row per distinct completion time, folded into the rollup's latency histogram
+    @Query(value = "SELECT workflow_id AS workflowId, status AS status, COUNT(*) AS total, "
+            + "TIMESTAMPDIFF(SECOND, submitted_at, updated_at) AS durationSeconds, 0 AS maxDurationSeconds "
+            + "FROM workflow_instances WHERE status IN ('APPROVED', 'REJECTED') "
+            + "AND updated_at >= :start AND updated_at < :end "
+            + "GROUP BY workflow_id, status, TIMESTAMPDIFF(SECOND, submitted_at, updated_at)", nativeQuery = true)
+    List<WorkflowStatusCount> countCompletionTimesBetween(@Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    // Text fields for the in-memory search index, streamed once on startup
+    @Query("SELECT i.id AS id, i.submittedAt AS submittedAt, w.title AS title, i.description AS description, "
+            + "i.remarks AS remarks, u.fullName AS applicantName FROM WorkflowInstance i JOIN i.workflow w JOIN i.user u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<SearchDocument> streamSearchDocuments();
+
+    // Same fields for one applicant's instances, re-read when their name changes
+    @Query("SELECT i.id AS id, i.submittedAt AS submittedAt, w.title AS title, i.description AS description, "
+            + "i.remarks AS remarks, u.fullName AS applicantName FROM WorkflowInstance i JOIN i.workflow w JOIN i.user u "
+            + "WHERE u.id = :userId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<SearchDocument> streamSearchDocumentsByUserId(@Param("userId") Long userId);
+
+    // Open instances still waiting for their due-date escalation, streamed once on startup
+    @Query("SELECT i.id AS id, i.dueDate AS dueDate, i.priority AS priority FROM WorkflowInstance i "
+            + "WHERE i.dueDate IS NOT NULL AND i.escalatedAt IS NULL AND i.status IN ("
+            + "com.enterprise.workflow.entity.WorkflowStatus.PENDING, "
+            + "com.enterprise.workflow.entity.WorkflowStatus.CHANGES_REQUESTED)")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<DueDate> streamPendingDueDates();
+
+    // Export rows as read-only projections so a full-table stream never fills the persistence context
+    @Query("SELECT new com.enterprise.workflow.dto.WorkflowInstanceRow(i.id, w.title, u.fullName, i.status, "
+            + "i.remarks, i.description, i.submittedAt, i.updatedAt, a.fullName, i.priority, i.dueDate, s.name) "
+            + "FROM WorkflowInstance i JOIN i.workflow w JOIN i.user u LEFT JOIN i.assignedTo a "
+            + "LEFT JOIN i.currentStep s WHERE (:status IS NULL OR i.status = :status) ORDER BY i.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<WorkflowInstanceRow> streamForExport(@Param("status") WorkflowStatus status);
+
+    interface StatusCount {
+        WorkflowStatus getStatus();
+
+        long getTotal();
+    }
+
+    interface WorkflowStats {
+        Long getWorkflowId();
+
+        String getTitle();
+
+        long getInstanceCount();
+
+        long getCompletedCount();
+
+        long getTimedCount();
+
+        long getDurationSeconds();
+    }
+
+    interface CompletionDuration {
+        Long getWorkflowId();
+
+        long getDurationSeconds();
+
+        long getTotal();
+    }
+
+    interface ActivityDay {
+        LocalDate getStatDate();
+    }
+
+    interface WorkflowStatusCount {
+        Long getWorkflowId();
+
+        WorkflowStatus getStatus();
+
+        long getTotal();
+
+        long getDurationSeconds();
+
+        long getMaxDurationSeconds();
+    }
+
+    interface AssigneeCount {
+        Long getUserId();
+
+        long getTotal();
+    }
+
+    interface DueDate {
+        Long getId();
+
+        LocalDateTime getDueDate();
+
+        Priority getPriority();
+    }
+
+    interface DailyCount {
+        LocalDate getStatDate();
+
+        long getTotal();
+    }
+
+    interface SearchDocument {
+        Long getId();
+
+        LocalDateTime getSubmittedAt();
+
+        String getTitle();
+
+        String getDescription();
+
+        String getRemarks();
+
+        String getApplicantName();
+    }
 }
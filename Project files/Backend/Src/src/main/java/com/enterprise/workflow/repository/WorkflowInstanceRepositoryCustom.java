@@ -0,0 +1,32 @@
+package com.enterprise.workflow.repository;
+
+import com.enterprise.workflow.dto.WorkflowInstanceRow;
+import com.enterprise.workflow.entity.Role;
+import com.enterprise.workflow.entity.WorkflowInstance;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface WorkflowInstanceRepositoryCustom {
+
+    /**
+     * Returns up to {@code limit} rows matching {@code spec}, ordered by
+     * submittedAt then id, both descending, that come strictly after the given
+     * keyset position (or from the start when it is null).
+     */
+    List<WorkflowInstanceRow> findPage(Specification<WorkflowInstance> spec, LocalDateTime afterSubmittedAt,
+            Long afterId, int limit);
+
+    /**
+     * Locks up to {@code limit} unassigned PENDING instances with
+     * {@code FOR UPDATE SKIP LOCKED}, highest priority and earliest due date
+     * first, and returns their ids. Rows locked by other claimers are skipped
+     * rather than waited on. When {@code ownerRole} is set, only instances
+     * submitted by users with that role are considered, and when
+     * {@code stepRole} is set, only unstepped instances and those whose current
+     * stage has a step for that role. Must run inside a transaction, which
+     * holds the locks until it ends.
+     */
+    List<Long> lockClaimable(Role ownerRole, Role stepRole, int limit);
+}
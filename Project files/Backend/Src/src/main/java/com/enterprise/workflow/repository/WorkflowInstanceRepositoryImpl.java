@@ -0,0 +1,122 @@
+package com.enterprise.workflow.repository;
+
+import com.enterprise.workflow.dto.WorkflowInstanceRow;
+import com.enterprise.workflow.entity.Priority;
+import com.enterprise.workflow.entity.Role;
+import com.enterprise.workflow.entity.User;
+import com.enterprise.workflow.entity.Workflow;
+import com.enterprise.workflow.entity.WorkflowInstance;
+import com.enterprise.workflow.entity.WorkflowStep;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class WorkflowInstanceRepositoryImpl implements WorkflowInstanceRepositoryCustom {
+
+    // Claim order: priority rank, then due date with undated instances last
+    private static final List<Priority> CLAIM_PRIORITIES = Arrays.asList(Priority.HIGH, Priority.MEDIUM,
+            Priority.LOW, null);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<WorkflowInstanceRow> findPage(Specification<WorkflowInstance> spec, LocalDateTime afterSubmittedAt,
+            Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<WorkflowInstanceRow> query = cb.createQuery(WorkflowInstanceRow.class);
+        Root<WorkflowInstance> root = query.from(WorkflowInstance.class);
+        Join<WorkflowInstance, Workflow> workflow = root.join("workflow");
+        Join<WorkflowInstance, User> applicant = root.join("user");
+        Join<WorkflowInstance, User> assignee = root.join("assignedTo", JoinType.LEFT);
+        Join<WorkflowInstance, WorkflowStep> step = root.join("currentStep", JoinType.LEFT);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null)
+                predicates.add(predicate);
+        }
+        if (afterSubmittedAt != null && afterId != null) {
+            // Row-value comparison (submittedAt, id) < (:submittedAt, :id), spelled out for JPA
+            predicates.add(cb.or(
+                    cb.lessThan(root.get("submittedAt"), afterSubmittedAt),
+                    cb.and(cb.equal(root.get("submittedAt"), afterSubmittedAt),
+                            cb.lessThan(root.get("id"), afterId))));
+        }
+
+        query.select(cb.construct(WorkflowInstanceRow.class,
+                root.get("id"),
+                workflow.get("title"),
+                applicant.get("fullName"),
+                root.get("status"),
+                root.get("remarks"),
+                root.get("description"),
+                root.get("submittedAt"),
+                root.get("updatedAt"),
+                assignee.get("fullName"),
+                root.get("priority"),
+                root.get("dueDate"),
+                step.get("name")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(root.get("submittedAt")), cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> lockClaimable(Role ownerRole, Role stepRole, int limit) {
+        // Priority is stored as its name, which does not sort by rank, and a locking read
+        // that has to sort locks every candidate it reads. Each pass is one equality
+        // range of idx_instances_queue, read in index order, so it stops after the rows
+        // it returns and concurrent claimers only contend on those.
+        List<Long> ids = new ArrayList<>();
+        for (Priority priority : CLAIM_PRIORITIES) {
+            for (boolean dated : new boolean[] { true, false }) {
+                if (ids.size() >= limit)
+                    return ids;
+                String sql = "SELECT i.id FROM workflow_instances i"
+                        + " WHERE i.status = 'PENDING' AND i.assigned_to IS NULL"
+                        + (priority != null ? " AND i.priority = :priority" : " AND i.priority IS NULL")
+                        + (dated ? " AND i.due_date IS NOT NULL" : " AND i.due_date IS NULL")
+                        + (ownerRole != null
+                                ? " AND i.user_id IN (SELECT u.id FROM users u WHERE u.role = :ownerRole)"
+                                : "")
+                        // Any step of the current stage may be decided by its role (see WorkflowEngine.decide)
+                        + (stepRole != null
+                                ? " AND (i.current_step_id IS NULL OR EXISTS (SELECT 1 FROM workflow_steps c"
+                                        + " JOIN workflow_steps s ON s.workflow_id = c.workflow_id"
+                                        + " AND s.step_order = c.step_order"
+                                        + " WHERE c.id = i.current_step_id AND s.required_role = :stepRole))"
+                                : "")
+                        + " ORDER BY " + (dated ? "i.due_date, i.id" : "i.id")
+                        + " LIMIT :limit FOR UPDATE SKIP LOCKED";
+                Query query = entityManager.createNativeQuery(sql, Long.class)
+                        .setParameter("limit", limit - ids.size());
+                if (priority != null)
+                    query.setParameter("priority", priority.name());
+                if (ownerRole != null)
+                    query.setParameter("ownerRole", ownerRole.name());
+                if (stepRole != null)
+                    query.setParameter("stepRole", stepRole.name());
+                ids.addAll(query.getResultList());
+            }
+        }
+        return ids;
+    }
+}
@@ -2,10 +2,18 @@ package com.enterprise.workflow.repository;
 
 import com.enterprise.workflow.entity.Workflow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface WorkflowRepository extends JpaRepository<Workflow, Long> {
+    @Query("SELECT w FROM Workflow w JOIN FETCH w.createdBy")
+    List<Workflow> findAllWithCreator();
+
+    @Query("SELECT w FROM Workflow w JOIN FETCH w.createdBy WHERE w.id = :id")
+    Optional<Workflow> findWithCreatorById(@Param("id") Long id);
 }
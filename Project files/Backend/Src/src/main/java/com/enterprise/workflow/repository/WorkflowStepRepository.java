@@ -0,0 +1,19 @@
+package com.enterprise.workflow.repository;
+
+import com.enterprise.workflow.entity.WorkflowStep;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WorkflowStepRepository extends JpaRepository<WorkflowStep, Long> {
+    @Query("SELECT s FROM WorkflowStep s WHERE s.workflow.id IN :workflowIds ORDER BY s.stepOrder, s.id")
+    List<WorkflowStep> findByWorkflowIdIn(@Param("workflowIds") Collection<Long> workflowIds);
+
+    @Query("SELECT s FROM WorkflowStep s ORDER BY s.stepOrder, s.id")
+    List<WorkflowStep> findAllOrdered();
+}
@@ -0,0 +1,61 @@
+package com.enterprise.workflow.repository;
+
+import com.enterprise.workflow.entity.Role;
+import com.enterprise.workflow.entity.WorkflowStepVisit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface WorkflowStepVisitRepository extends JpaRepository<WorkflowStepVisit, Long> {
+    // Spelled out because the derived query joined workflow_instances and filtered on the
+    // joined id, which kept it off idx_step_visits_instance_open
+    @Query("SELECT v FROM WorkflowStepVisit v WHERE v.instance.id = :instanceId AND v.step.id = :stepId "
+            + "AND v.exitedAt IS NULL ORDER BY v.enteredAt DESC LIMIT 1")
+    Optional<WorkflowStepVisit> findOpenByInstanceIdAndStepId(@Param("instanceId") Long instanceId,
+            @Param("stepId") Long stepId);
+
+    @Query("SELECT v FROM WorkflowStepVisit v JOIN FETCH v.step WHERE v.instance.id IN :instanceIds "
+            + "AND v.exitedAt IS NULL")
+    List<WorkflowStepVisit> findOpenByInstanceIdIn(@Param("instanceIds") Collection<Long> instanceIds);
+
+    @Query("SELECT s.requiredRole AS requiredRole, s.name AS stepName, COUNT(v) AS total "
+            + "FROM WorkflowStepVisit v JOIN v.step s WHERE v.exitedAt IS NULL GROUP BY s.requiredRole, s.name")
+    List<StepCount> countOpenByStep();
+
+    @Query(value = "SELECT s.required_role AS requiredRole, s.name AS stepName, "
+            + "TIMESTAMPDIFF(SECOND, v.entered_at, v.exited_at) AS durationSeconds, COUNT(*) AS total "
+            + "FROM workflow_step_visits v JOIN workflow_steps s ON s.id = v.step_id "
+            + "WHERE v.exited_at IS NOT NULL "
+            + "GROUP BY s.required_role, s.name, TIMESTAMPDIFF(SECOND, v.entered_at, v.exited_at)",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<StepDwell> streamCompletedDwellTimes();
+
+    interface StepCount {
+        Role getRequiredRole();
+
+        String getStepName();
+
+        long getTotal();
+    }
+
+    interface StepDwell {
+        Role getRequiredRole();
+
+        String getStepName();
+
+        long getDurationSeconds();
+
+        long getTotal();
+    }
+}
@@ -0,0 +1,174 @@
+package com.enterprise.workflow.service;
+
+import com.enterprise.workflow.dto.AnalyticsResponse;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caches analytics reports per key. Reports younger than the TTL are served as-is;
+ * older or dirty reports are served stale while one background refresh runs, up to
+ * the max-stale age, after which callers wait. Concurrent callers that have to wait
+ * share a single in-flight computation.
+ */
+@Component
+public class AnalyticsCache {
+
+    private final long ttlNanos;
+    private final long maxStaleNanos;
+    private final int maxReports;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "analytics-cache-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder refreshNanos = new LongAdder();
+    private final AtomicLong maxRefreshNanos = new AtomicLong();
+
+    public AnalyticsCache(@Value("${analytics.cache.ttl-seconds:30}") long ttlSeconds,
+            @Value("${analytics.cache.max-stale-seconds:300}") long maxStaleSeconds,
+            @Value("${analytics.cache.max-reports:100}") int maxReports) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxStaleNanos = TimeUnit.SECONDS.toNanos(Math.max(ttlSeconds, maxStaleSeconds));
+        this.maxReports = maxReports;
+    }
+
+    public AnalyticsResponse get(String key, Supplier<AnalyticsResponse> loader) {
+        if (!entries.containsKey(key) && entries.size() >= maxReports)
+            evictOldest();
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+        Snapshot current = entry.snapshot;
+        if (current != null) {
+            long age = System.nanoTime() - current.loadedAt;
+            if (!entry.dirty && age < ttlNanos) {
+                hits.increment();
+                return current.value;
+            }
+            if (age < maxStaleNanos) {
+                staleHits.increment();
+                refresh(entry, loader, true);
+                return current.value;
+            }
+        }
+        misses.increment();
+        try {
+            return refresh(entry, loader, false).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Flags the cached reports whose key starts with {@code prefix} as out of
+     * date. Readers keep getting the current report until the background refresh
+     * triggered by the next read completes.
+     */
+    public void markDirty(String prefix) {
+        entries.forEach((key, entry) -> {
+            if (key.startsWith(prefix))
+                entry.dirty = true;
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        long refreshCount = refreshes.sum();
+        long served = hits.sum() + staleHits.sum() + misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.sum());
+        stats.put("staleHits", staleHits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("hitRatio", served > 0 ? (double) (hits.sum() + staleHits.sum()) / served : 0.0);
+        stats.put("refreshCount", refreshCount);
+        stats.put("refreshFailures", refreshFailures.sum());
+        stats.put("averageRefreshMillis",
+                refreshCount > 0 ? (double) refreshNanos.sum() / refreshCount / 1_000_000 : 0.0);
+        stats.put("maxRefreshMillis", (double) maxRefreshNanos.get() / 1_000_000);
+        stats.put("ttlSeconds", TimeUnit.NANOSECONDS.toSeconds(ttlNanos));
+        stats.put("maxStaleSeconds", TimeUnit.NANOSECONDS.toSeconds(maxStaleNanos));
+        stats.put("cachedReports", entries.size());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void evictOldest() {
+        entries.entrySet().stream()
+                .filter(e -> e.getValue().snapshot != null)
+                .min(Comparator.comparingLong(e -> e.getValue().snapshot.loadedAt()))
+                .ifPresent(e -> entries.remove(e.getKey(), e.getValue()));
+    }
+
+    private CompletableFuture<AnalyticsResponse> refresh(Entry entry, Supplier<AnalyticsResponse> loader,
+            boolean background) {
+        while (true) {
+            CompletableFuture<AnalyticsResponse> inFlight = entry.inFlight.get();
+            if (inFlight != null)
+                return inFlight;
+            CompletableFuture<AnalyticsResponse> future = new CompletableFuture<>();
+            if (entry.inFlight.compareAndSet(null, future)) {
+                // Cleared before loading so that writes during the load mark the entry again
+                entry.dirty = false;
+                if (background) {
+                    refresher.execute(() -> load(entry, loader, future));
+                } else {
+                    load(entry, loader, future);
+                }
+                return future;
+            }
+        }
+    }
+
+    private void load(Entry entry, Supplier<AnalyticsResponse> loader, CompletableFuture<AnalyticsResponse> future) {
+        long start = System.nanoTime();
+        try {
+            AnalyticsResponse value = loader.get();
+            entry.snapshot = new Snapshot(value, start);
+            future.complete(value);
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            entry.dirty = true;
+            future.completeExceptionally(e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            refreshes.increment();
+            refreshNanos.add(elapsed);
+            maxRefreshNanos.accumulateAndGet(elapsed, Math::max);
+            entry.inFlight.set(null);
+        }
+    }
+
+    private record Snapshot(AnalyticsResponse value, long loadedAt) {
+    }
+
+    private static class Entry {
+        private volatile Snapshot snapshot;
+        private volatile boolean dirty;
+        private final AtomicReference<CompletableFuture<AnalyticsResponse>> inFlight = new AtomicReference<>();
+    }
+}
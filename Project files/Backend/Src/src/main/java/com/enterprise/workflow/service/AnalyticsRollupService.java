@@ -0,0 +1,107 @@
+package com.enterprise.workflow.service;
+
+import com.enterprise.workflow.entity.WorkflowDailyStat;
+import com.enterprise.workflow.entity.WorkflowStatus;
+import com.enterprise.workflow.repository.WorkflowDailyStatRepository;
+import com.enterprise.workflow.repository.WorkflowInstanceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps {@code workflow_daily_stats} up to date. Each run finds the days touched by
+ * instances submitted or updated since the previous run and recomputes only those
+ * days, so the rollup stays incremental after the first backfill.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticsRollupService {
+
+    // Re-scan a little behind the last run so rows committed late are not missed
+    private static final Duration COMMIT_MARGIN = Duration.ofMinutes(5);
+    private static final LocalDateTime BACKFILL_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final WorkflowInstanceRepository instanceRepository;
+    private final WorkflowDailyStatRepository dailyStatRepository;
+    private final AnalyticsService analyticsService;
+    private final TransactionTemplate transactionTemplate;
+
+    private LocalDateTime watermark;
+
+    @Scheduled(initialDelayString = "${analytics.rollup.initial-delay-ms:10000}",
+            fixedDelayString = "${analytics.rollup.interval-ms:300000}")
+    public synchronized void refreshRollups() {
+        LocalDateTime runStartedAt = LocalDateTime.now();
+        if (watermark == null) {
+            LocalDate latest = dailyStatRepository.findLatestStatDate();
+            LocalDate missingHistogram = dailyStatRepository.findEarliestStatDateWithoutHistogram();
+            if (missingHistogram != null && (latest == null || missingHistogram.isBefore(latest)))
+                latest = missingHistogram;
+            watermark = latest != null ? latest.atStartOfDay() : BACKFILL_START;
+        }
+
+        List<LocalDate> days = instanceRepository.findActivityDaysSince(watermark).stream()
+                .map(WorkflowInstanceRepository.ActivityDay::getStatDate)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList();
+        for (LocalDate day : days) {
+            transactionTemplate.executeWithoutResult(tx -> rollUp(day));
+        }
+
+        watermark = runStartedAt.minus(COMMIT_MARGIN);
+        if (!days.isEmpty()) {
+            // Every day has committed by now, so refreshed range reports read the new rows
+            analyticsService.rollupsChanged();
+            System.out.println("Rolled up workflow statistics for " + days.size() + " day(s)");
+        }
+    }
+
+    private void rollUp(LocalDate day) {
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = day.plusDays(1).atStartOfDay();
+        Map<String, WorkflowDailyStat> rows = new HashMap<>();
+
+        for (WorkflowInstanceRepository.WorkflowStatusCount row : instanceRepository.countSubmittedBetween(start,
+                end)) {
+            statFor(rows, day, row).setSubmittedCount(row.getTotal());
+        }
+        for (WorkflowInstanceRepository.WorkflowStatusCount row : instanceRepository.countCompletedBetween(start,
+                end)) {
+            WorkflowDailyStat stat = statFor(rows, day, row);
+            stat.setCompletedCount(row.getTotal());
+            stat.setDurationSeconds(row.getDurationSeconds());
+            stat.setMaxDurationSeconds(row.getMaxDurationSeconds());
+        }
+        Map<String, LatencyHistogram> latency = new HashMap<>();
+        for (WorkflowInstanceRepository.WorkflowStatusCount row : instanceRepository
+                .countCompletionTimesBetween(start, end)) {
+            latency.computeIfAbsent(row.getWorkflowId() + ":" + row.getStatus(), key -> new LatencyHistogram())
+                    .record(row.getDurationSeconds(), row.getTotal());
+        }
+        latency.forEach((key, histogram) -> rows.get(key).setLatencyHistogram(histogram.toBytes()));
+
+        dailyStatRepository.deleteByStatDate(day);
+        dailyStatRepository.saveAll(rows.values());
+    }
+
+    private WorkflowDailyStat statFor(Map<String, WorkflowDailyStat> rows, LocalDate day,
+            WorkflowInstanceRepository.WorkflowStatusCount row) {
+        WorkflowStatus status = row.getStatus();
+        return rows.computeIfAbsent(row.getWorkflowId() + ":" + status, key -> WorkflowDailyStat.builder()
+                .statDate(day)
+                .workflowId(row.getWorkflowId())
+                .status(status)
+                .build());
+    }
+}
@@ -1,119 +1,143 @@
 package com.enterprise.workflow.service;
 
 import com.enterprise.workflow.dto.AnalyticsResponse;
-import com.enterprise.workflow.entity.WorkflowInstance;
 import com.enterprise.workflow.entity.WorkflowStatus;
-import com.enterprise.workflow.repository.WorkflowInstanceRepository;
+import com.enterprise.workflow.repository.WorkflowDailyStatRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.*;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AnalyticsService {
 
-    private final WorkflowInstanceRepository instanceRepository;
+    private static final String SYSTEM_REPORT = "system";
+    private static final String RANGE_REPORT = "range:";
+    private static final int DEFAULT_RANGE_DAYS = 30;
+
+    private final AnalyticsStore analyticsStore;
+    private final AnalyticsCache analyticsCache;
+    private final WorkflowDailyStatRepository dailyStatRepository;
+    private final ColumnarAnalyticsEngine columnarEngine;
 
     public AnalyticsResponse getSystemAnalytics() {
-        List<WorkflowInstance> allInstances = instanceRepository.findAll();
+        return analyticsCache.get(SYSTEM_REPORT, analyticsStore::snapshot);
+    }
 
-        return AnalyticsResponse.builder()
-                .summary(calculateSummary(allInstances))
-                .performance(calculatePerformance(allInstances))
-                .statusDistribution(calculateStatusDistribution(allInstances))
-                .trends(calculateTrends(allInstances))
-                .build();
+    /**
+     * Returns the live system report when no filter is given, otherwise a report
+     * over the inclusive date range built from the daily rollup table.
+     */
+    public AnalyticsResponse getAnalytics(LocalDate from, LocalDate to, Long workflowId) {
+        if (from == null && to == null && workflowId == null)
+            return getSystemAnalytics();
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        if (start.isAfter(end))
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+
+        String key = RANGE_REPORT + start + ":" + end + ":" + workflowId;
+        return analyticsCache.get(key, () -> buildRangeReport(start, end, workflowId));
+    }
+
+    /**
+     * Recomputes the system report with a full scan of the instance table, for
+     * ad-hoc checks of the incrementally maintained counters.
+     */
+    public AnalyticsResponse getFullScanAnalytics() {
+        return columnarEngine.computeFromDatabase();
     }
 
-    private AnalyticsResponse.SummaryStats calculateSummary(List<WorkflowInstance> instances) {
-        long total = instances.size();
-        if (total == 0)
-            return new AnalyticsResponse.SummaryStats(0, 0, 0, 0);
+    // Instance writes only change the live report; ranged reports read the daily rollup
+    public void liveDataChanged() {
+        analyticsCache.markDirty(SYSTEM_REPORT);
+    }
 
-        long approved = instances.stream().filter(i -> i.getStatus() == WorkflowStatus.APPROVED).count();
-        long pending = instances.stream().filter(i -> i.getStatus() == WorkflowStatus.PENDING).count();
+    public void rollupsChanged() {
+        analyticsCache.markDirty(RANGE_REPORT);
+    }
 
-        double avgCompletionTime = instances.stream()
-                .filter(i -> i.getStatus() == WorkflowStatus.APPROVED || i.getStatus() == WorkflowStatus.REJECTED)
-                .filter(i -> i.getUpdatedAt() != null)
-                .mapToLong(i -> Duration.between(i.getSubmittedAt(), i.getUpdatedAt()).toHours())
-                .average()
-                .orElse(0.0);
+    public Map<String, Object> getCacheStats() {
+        return analyticsCache.getStats();
+    }
 
-        return AnalyticsResponse.SummaryStats.builder()
+    private AnalyticsResponse buildRangeReport(LocalDate from, LocalDate to, Long workflowId) {
+        Map<String, Long> statusDistribution = new HashMap<>();
+        long total = 0;
+        for (WorkflowDailyStatRepository.StatusTotal row : dailyStatRepository.sumByStatus(from, to, workflowId)) {
+            if (row.getTotal() > 0)
+                statusDistribution.put(row.getStatus().name(), row.getTotal());
+            total += row.getTotal();
+        }
+
+        long completed = 0;
+        long durationSeconds = 0;
+        List<WorkflowDailyStatRepository.WorkflowTotal> workflowTotals = dailyStatRepository.sumByWorkflow(from, to,
+                workflowId);
+        for (WorkflowDailyStatRepository.WorkflowTotal row : workflowTotals) {
+            completed += row.getCompletedCount();
+            durationSeconds += row.getDurationSeconds();
+        }
+
+        AnalyticsResponse.SummaryStats summary = AnalyticsResponse.SummaryStats.builder()
                 .totalWorkflows(total)
-                .completionRate(total > 0 ? (double) approved / total * 100 : 0)
-                .averageCompletionTimeHours(avgCompletionTime)
-                .totalPending(pending)
+                .completionRate(total > 0
+                        ? (double) statusDistribution.getOrDefault(WorkflowStatus.APPROVED.name(), 0L) / total * 100
+                        : 0)
+                .averageCompletionTimeHours(averageHours(durationSeconds, completed))
+                .totalPending(statusDistribution.getOrDefault(WorkflowStatus.PENDING.name(), 0L))
                 .build();
-    }
-
-    private List<AnalyticsResponse.WorkflowPerformance> calculatePerformance(List<WorkflowInstance> instances) {
-        return instances.stream()
-                .collect(Collectors.groupingBy(i -> i.getWorkflow().getTitle()))
-                .entrySet().stream()
-                .map(entry -> {
-                    String title = entry.getKey();
-                    List<WorkflowInstance> group = entry.getValue();
-
-                    long completedCount = group.stream()
-                            .filter(i -> i.getStatus() == WorkflowStatus.APPROVED
-                                    || i.getStatus() == WorkflowStatus.REJECTED)
-                            .count();
-
-                    double avgTime = group.stream()
-                            .filter(i -> i.getStatus() == WorkflowStatus.APPROVED
-                                    || i.getStatus() == WorkflowStatus.REJECTED)
-                            .filter(i -> i.getUpdatedAt() != null)
-                            .mapToLong(i -> Duration.between(i.getSubmittedAt(), i.getUpdatedAt()).toHours())
-                            .average()
-                            .orElse(0.0);
 
+        Map<Long, LatencyHistogram> latency = new HashMap<>();
+        for (WorkflowDailyStatRepository.WorkflowHistogram row : dailyStatRepository.findHistograms(from, to,
+                workflowId)) {
+            latency.computeIfAbsent(row.getWorkflowId(), id -> new LatencyHistogram())
+                    .merge(LatencyHistogram.fromBytes(row.getLatencyHistogram()));
+        }
+
+        List<AnalyticsResponse.WorkflowPerformance> performance = workflowTotals.stream()
+                .map(row -> {
+                    LatencyHistogram histogram = latency.getOrDefault(row.getWorkflowId(), new LatencyHistogram());
+                    long p90 = histogram.percentile(90);
                     return AnalyticsResponse.WorkflowPerformance.builder()
-                            .workflowTitle(title)
-                            .completedCount(completedCount)
-                            .averageTimeHours(avgTime)
-                            .bottleneckRisk(avgTime > 48 ? "HIGH" : avgTime > 24 ? "MEDIUM" : "LOW")
+                            .workflowTitle(row.getTitle())
+                            .completedCount(row.getCompletedCount())
+                            .averageTimeHours(averageHours(row.getDurationSeconds(), row.getCompletedCount()))
+                            .p50Seconds(histogram.percentile(50))
+                            .p90Seconds(p90)
+                            .p99Seconds(histogram.percentile(99))
+                            .maxSeconds(row.getMaxDurationSeconds())
+                            .bottleneckRisk(AnalyticsStore.bottleneckRisk(p90))
                             .build();
                 })
-                .sorted(Comparator.comparingDouble(AnalyticsResponse.WorkflowPerformance::getAverageTimeHours)
-                        .reversed())
+                .sorted(Comparator.comparingLong(AnalyticsResponse.WorkflowPerformance::getP90Seconds).reversed())
                 .collect(Collectors.toList());
-    }
 
-    private Map<String, Long> calculateStatusDistribution(List<WorkflowInstance> instances) {
-        return instances.stream()
-                .collect(Collectors.groupingBy(i -> i.getStatus().name(), Collectors.counting()));
-    }
-
-    private List<AnalyticsResponse.DailyTrend> calculateTrends(List<WorkflowInstance> instances) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd");
-        LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
-
-        Map<String, Long> completionsByDate = instances.stream()
-                .filter(i -> i.getStatus() == WorkflowStatus.APPROVED || i.getStatus() == WorkflowStatus.REJECTED)
-                .filter(i -> i.getUpdatedAt() != null && i.getUpdatedAt().isAfter(sevenDaysAgo))
-                .collect(Collectors.groupingBy(i -> i.getUpdatedAt().format(formatter), Collectors.counting()));
-
-        Map<String, Long> submissionsByDate = instances.stream()
-                .filter(i -> i.getSubmittedAt().isAfter(sevenDaysAgo))
-                .collect(Collectors.groupingBy(i -> i.getSubmittedAt().format(formatter), Collectors.counting()));
-
-        // Merge dates from both sets to ensure trend line is continuous
-        Set<String> allDates = new TreeSet<>(completionsByDate.keySet());
-        allDates.addAll(submissionsByDate.keySet());
-
-        return allDates.stream()
-                .map(date -> AnalyticsResponse.DailyTrend.builder()
-                        .date(date)
-                        .completedCount(completionsByDate.getOrDefault(date, 0L))
-                        .submittedCount(submissionsByDate.getOrDefault(date, 0L))
+        List<AnalyticsResponse.DailyTrend> trends = dailyStatRepository.sumByDay(from, to, workflowId).stream()
+                .map(row -> AnalyticsResponse.DailyTrend.builder()
+                        .day(row.getStatDate())
+                        .date(row.getStatDate().format(AnalyticsStore.TREND_FORMAT))
+                        .completedCount(row.getCompletedCount())
+                        .submittedCount(row.getSubmittedCount())
                         .build())
                 .collect(Collectors.toList());
+
+        return AnalyticsResponse.builder()
+                .summary(summary)
+                .performance(performance)
+                .statusDistribution(statusDistribution)
+                .trends(trends)
+                .build();
+    }
+
+    private static double averageHours(long durationSeconds, long count) {
+        return count > 0 ? (double) durationSeconds / count / 3600 : 0.0;
     }
 }
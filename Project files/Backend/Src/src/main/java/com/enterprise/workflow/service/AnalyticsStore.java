@@ -0,0 +1,319 @@
+package com.enterprise.workflow.service;
+
+import com.enterprise.workflow.dto.AnalyticsResponse;
+import com.enterprise.workflow.entity.Role;
+import com.enterprise.workflow.entity.WorkflowInstance;
+import com.enterprise.workflow.entity.WorkflowStatus;
+import com.enterprise.workflow.repository.WorkflowInstanceRepository;
+import com.enterprise.workflow.repository.WorkflowStepVisitRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory analytics counters kept up to date by workflow instance transitions.
+ * The store is rebuilt from the database on startup, after which the dashboard
+ * reads it without touching the instance table.
+ */
+@Component
+@RequiredArgsConstructor
+public class AnalyticsStore {
+
+    static final int TREND_DAYS = 7;
+    static final long HIGH_RISK_SECONDS = 48 * 3600;
+    static final long MEDIUM_RISK_SECONDS = 24 * 3600;
+
+    static final DateTimeFormatter TREND_FORMAT = DateTimeFormatter.ofPattern("MMM dd");
+
+    private final WorkflowInstanceRepository instanceRepository;
+    private final WorkflowStepVisitRepository stepVisitRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private long total;
+    private final Map<WorkflowStatus, Long> statusCounts = new EnumMap<>(WorkflowStatus.class);
+    private final Map<Long, WorkflowCounters> workflows = new HashMap<>();
+    private final Map<LocalDate, DailyCounters> daily = new HashMap<>();
+    private final Map<String, StepCounters> steps = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        transactionTemplate.executeWithoutResult(tx -> load());
+        System.out.println("Analytics store rebuilt from " + total + " workflow instances");
+    }
+
+    private void load() {
+        clear();
+        for (WorkflowInstanceRepository.StatusCount row : instanceRepository.countByStatus()) {
+            statusCounts.put(row.getStatus(), row.getTotal());
+            total += row.getTotal();
+        }
+        for (WorkflowInstanceRepository.WorkflowStats row : instanceRepository.aggregateByWorkflow()) {
+            WorkflowCounters counters = new WorkflowCounters();
+            counters.title = row.getTitle();
+            counters.instanceCount = row.getInstanceCount();
+            counters.completedCount = row.getCompletedCount();
+            counters.timedCount = row.getTimedCount();
+            counters.durationSeconds = row.getDurationSeconds();
+            workflows.put(row.getWorkflowId(), counters);
+        }
+        LocalDateTime since = LocalDate.now().minusDays(TREND_DAYS).atStartOfDay();
+        for (WorkflowInstanceRepository.DailyCount row : instanceRepository.countSubmittedByDay(since)) {
+            dailyCounters(row.getStatDate()).submitted = row.getTotal();
+        }
+        for (WorkflowInstanceRepository.DailyCount row : instanceRepository.countCompletedByDay(since)) {
+            dailyCounters(row.getStatDate()).completed = row.getTotal();
+        }
+        try (Stream<WorkflowInstanceRepository.CompletionDuration> rows = instanceRepository
+                .streamCompletionDurations()) {
+            rows.forEach(row -> {
+                WorkflowCounters counters = workflows.get(row.getWorkflowId());
+                if (counters != null)
+                    counters.latency.record(row.getDurationSeconds(), row.getTotal());
+            });
+        }
+        for (WorkflowStepVisitRepository.StepCount row : stepVisitRepository.countOpenByStep()) {
+            stepCounters(row.getRequiredRole(), row.getStepName()).waiting = row.getTotal();
+        }
+        try (Stream<WorkflowStepVisitRepository.StepDwell> rows = stepVisitRepository.streamCompletedDwellTimes()) {
+            rows.forEach(row -> {
+                StepCounters counters = stepCounters(row.getRequiredRole(), row.getStepName());
+                counters.visits += row.getTotal();
+                counters.durationSeconds += row.getDurationSeconds() * row.getTotal();
+                counters.dwell.record(row.getDurationSeconds(), row.getTotal());
+            });
+        }
+    }
+
+    public synchronized void recordSubmitted(WorkflowInstance instance) {
+        total++;
+        statusCounts.merge(WorkflowStatus.PENDING, 1L, Long::sum);
+        workflowCounters(instance).instanceCount++;
+        if (instance.getSubmittedAt() != null) {
+            dailyCounters(instance.getSubmittedAt().toLocalDate()).submitted++;
+        }
+    }
+
+    /**
+     * Moves an instance from {@code previousStatus} to its current status.
+     * {@code previousUpdatedAt} is the completion time the store last counted
+     * for the instance, so re-deciding a completed request replaces its duration.
+     */
+    public synchronized void recordStatusChange(WorkflowInstance instance, WorkflowStatus previousStatus,
+            LocalDateTime previousUpdatedAt) {
+        WorkflowStatus status = instance.getStatus();
+        statusCounts.merge(previousStatus, -1L, Long::sum);
+        statusCounts.merge(status, 1L, Long::sum);
+
+        WorkflowCounters counters = workflowCounters(instance);
+        if (isCompleted(previousStatus)) {
+            counters.completedCount--;
+            if (previousUpdatedAt != null) {
+                counters.timedCount--;
+                long previousSeconds = secondsBetween(instance.getSubmittedAt(), previousUpdatedAt);
+                counters.durationSeconds -= previousSeconds;
+                counters.latency.remove(previousSeconds);
+                DailyCounters previousDay = daily.get(previousUpdatedAt.toLocalDate());
+                if (previousDay != null)
+                    previousDay.completed--;
+            }
+        }
+        if (isCompleted(status)) {
+            counters.completedCount++;
+            if (instance.getUpdatedAt() != null) {
+                counters.timedCount++;
+                long seconds = secondsBetween(instance.getSubmittedAt(), instance.getUpdatedAt());
+                counters.durationSeconds += seconds;
+                counters.latency.record(seconds);
+                dailyCounters(instance.getUpdatedAt().toLocalDate()).completed++;
+            }
+        }
+    }
+
+    public synchronized void recordStepEntered(Role requiredRole, String stepName) {
+        stepCounters(requiredRole, stepName).waiting++;
+    }
+
+    public synchronized void recordStepExited(Role requiredRole, String stepName, long dwellSeconds) {
+        StepCounters counters = stepCounters(requiredRole, stepName);
+        counters.waiting--;
+        counters.visits++;
+        counters.durationSeconds += dwellSeconds;
+        counters.dwell.record(dwellSeconds);
+    }
+
+    public synchronized AnalyticsResponse snapshot() {
+        pruneTrends();
+        return AnalyticsResponse.builder()
+                .summary(summary())
+                .performance(performance())
+                .statusDistribution(statusDistribution())
+                .trends(trends())
+                .stepDwellTimes(stepDwellTimes())
+                .build();
+    }
+
+    private AnalyticsResponse.SummaryStats summary() {
+        if (total == 0)
+            return new AnalyticsResponse.SummaryStats(0, 0, 0, 0);
+
+        long timed = 0;
+        long durationSeconds = 0;
+        for (WorkflowCounters counters : workflows.values()) {
+            timed += counters.timedCount;
+            durationSeconds += counters.durationSeconds;
+        }
+
+        return AnalyticsResponse.SummaryStats.builder()
+                .totalWorkflows(total)
+                .completionRate((double) statusCount(WorkflowStatus.APPROVED) / total * 100)
+                .averageCompletionTimeHours(averageHours(durationSeconds, timed))
+                .totalPending(statusCount(WorkflowStatus.PENDING))
+                .build();
+    }
+
+    private List<AnalyticsResponse.WorkflowPerformance> performance() {
+        return workflows.values().stream()
+                .filter(counters -> counters.instanceCount > 0)
+                .map(counters -> {
+                    long p90 = counters.latency.percentile(90);
+                    return AnalyticsResponse.WorkflowPerformance.builder()
+                            .workflowTitle(counters.title)
+                            .completedCount(counters.completedCount)
+                            .averageTimeHours(averageHours(counters.durationSeconds, counters.timedCount))
+                            .p50Seconds(counters.latency.percentile(50))
+                            .p90Seconds(p90)
+                            .p99Seconds(counters.latency.percentile(99))
+                            .maxSeconds(counters.latency.max())
+                            .bottleneckRisk(bottleneckRisk(p90))
+                            .build();
+                })
+                .sorted(Comparator.comparingLong(AnalyticsResponse.WorkflowPerformance::getP90Seconds)
+                        .reversed())
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, Long> statusDistribution() {
+        Map<String, Long> distribution = new HashMap<>();
+        statusCounts.forEach((status, count) -> {
+            if (count > 0)
+                distribution.put(status.name(), count);
+        });
+        return distribution;
+    }
+
+    private List<AnalyticsResponse.DailyTrend> trends() {
+        return daily.entrySet().stream()
+                .filter(entry -> entry.getValue().submitted > 0 || entry.getValue().completed > 0)
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> AnalyticsResponse.DailyTrend.builder()
+                        .day(entry.getKey())
+                        .date(entry.getKey().format(TREND_FORMAT))
+                        .completedCount(entry.getValue().completed)
+                        .submittedCount(entry.getValue().submitted)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private List<AnalyticsResponse.StepDwellTime> stepDwellTimes() {
+        return steps.values().stream()
+                .map(counters -> AnalyticsResponse.StepDwellTime.builder()
+                        .requiredRole(counters.requiredRole)
+                        .stepName(counters.name)
+                        .completedVisits(counters.visits)
+                        .currentlyWaiting(counters.waiting)
+                        .averageDwellHours(averageHours(counters.durationSeconds, counters.visits))
+                        .p95DwellSeconds(counters.dwell.percentile(95))
+                        .build())
+                .sorted(Comparator.comparingLong(AnalyticsResponse.StepDwellTime::getP95DwellSeconds).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private void pruneTrends() {
+        LocalDate cutoff = LocalDate.now().minusDays(TREND_DAYS);
+        daily.keySet().removeIf(day -> day.isBefore(cutoff));
+    }
+
+    private void clear() {
+        total = 0;
+        statusCounts.clear();
+        workflows.clear();
+        daily.clear();
+        steps.clear();
+    }
+
+    private long statusCount(WorkflowStatus status) {
+        return statusCounts.getOrDefault(status, 0L);
+    }
+
+    private WorkflowCounters workflowCounters(WorkflowInstance instance) {
+        WorkflowCounters counters = workflows.computeIfAbsent(instance.getWorkflow().getId(),
+                id -> new WorkflowCounters());
+        counters.title = instance.getWorkflow().getTitle();
+        return counters;
+    }
+
+    private StepCounters stepCounters(Role requiredRole, String stepName) {
+        return steps.computeIfAbsent(requiredRole + "|" + stepName, key -> {
+            StepCounters counters = new StepCounters();
+            counters.requiredRole = requiredRole;
+            counters.name = stepName;
+            return counters;
+        });
+    }
+
+    private DailyCounters dailyCounters(LocalDate day) {
+        return daily.computeIfAbsent(day, d -> new DailyCounters());
+    }
+
+    private static boolean isCompleted(WorkflowStatus status) {
+        return status == WorkflowStatus.APPROVED || status == WorkflowStatus.REJECTED;
+    }
+
+    private static long secondsBetween(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(from, to).getSeconds();
+    }
+
+    static String bottleneckRisk(long p90Seconds) {
+        return p90Seconds > HIGH_RISK_SECONDS ? "HIGH" : p90Seconds > MEDIUM_RISK_SECONDS ? "MEDIUM" : "LOW";
+    }
+
+    private static double averageHours(long durationSeconds, long count) {
+        return count > 0 ? (double) durationSeconds / count / 3600 : 0.0;
+    }
+
+    private static class WorkflowCounters {
+        private String title;
+        private long instanceCount;
+        private long completedCount;
+        private long timedCount;
+        private long durationSeconds;
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    private static class DailyCounters {
+        private long submitted;
+        private long completed;
+    }
+
+    private static class StepCounters {
+        private Role requiredRole;
+        private String name;
+        private long waiting;
+        private long visits;
+        private long durationSeconds;
+        private final LatencyHistogram dwell = new LatencyHistogram();
+    }
+}
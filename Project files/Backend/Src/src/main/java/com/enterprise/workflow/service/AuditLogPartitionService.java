@@ -0,0 +1,234 @@
+package com.enterprise.workflow.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps audit_logs in monthly partitions and retires old months. On MySQL the
+ * table is range-partitioned on its timestamp ({@code p202610} holds October
+ * 2026, {@code pmax} catches anything past the last month), so time-bounded
+ * audit queries only read the months they cover. The primary key has to
+ * include the partitioning column, so it becomes (id, timestamp) when the table
+ * is first converted; ids stay unique through the sequence.
+ *
+ * Partitions are kept created a few months ahead. Months older than the
+ * retention window are written to a gzipped NDJSON file per month in the
+ * archive directory and then dropped, which is a metadata change instead of a
+ * large delete. Databases without partitioning (or with it turned off) get the
+ * same archive files, with the rows removed by a ranged delete.
+ *
+ * Both are opt-in: partitioning is off and retention keeps every month unless
+ * configured, since converting the table rewrites it and archival removes rows.
+ */
+@Service
+public class AuditLogPartitionService {
+
+    private static final String TABLE = "audit_logs";
+    private static final String OVERFLOW = "pmax";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean partitioningEnabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final Path archiveDir;
+
+    public AuditLogPartitionService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+            @Value("${audit.partitions.enabled:false}") boolean partitioningEnabled,
+            @Value("${audit.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${audit.retention.months:0}") int retentionMonths,
+            @Value("${audit.archive.dir:./audit-archive}") String archiveDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.partitioningEnabled = partitioningEnabled;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.archiveDir = Paths.get(archiveDir).toAbsolutePath().normalize();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${audit.partitions.maintenance-cron:0 15 2 * * *}")
+    public synchronized void maintain() {
+        try {
+            YearMonth current = YearMonth.now();
+            boolean partitioned = partitioningEnabled && isMySql()
+                    && ensurePartitions(current.plusMonths(monthsAhead));
+            // Zero or less keeps every month
+            if (retentionMonths > 0)
+                retireBefore(current.minusMonths(retentionMonths), partitioned);
+        } catch (RuntimeException e) {
+            System.out.println("Audit log partition maintenance failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Archives every month before {@code firstKept} that still has rows, then
+     * drops its partition or deletes its rows. A month whose archive cannot be
+     * written is left in place and retried on the next run.
+     */
+    private void retireBefore(YearMonth firstKept, boolean partitioned) {
+        List<YearMonth> months = new ArrayList<>();
+        if (partitioned) {
+            for (String name : partitionNames()) {
+                if (!name.equals(OVERFLOW) && YearMonth.parse(name, PARTITION_NAME).isBefore(firstKept))
+                    months.add(YearMonth.parse(name, PARTITION_NAME));
+            }
+        } else {
+            LocalDateTime oldest = jdbcTemplate.queryForObject("SELECT MIN(`timestamp`) FROM " + TABLE,
+                    LocalDateTime.class);
+            for (YearMonth month = oldest != null ? YearMonth.from(oldest) : firstKept; month
+                    .isBefore(firstKept); month = month.plusMonths(1)) {
+                months.add(month);
+            }
+        }
+
+        for (YearMonth month : months) {
+            long archived = archive(month);
+            if (partitioned) {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + month.format(PARTITION_NAME));
+            } else if (archived > 0) {
+                jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE `timestamp` >= ? AND `timestamp` < ?",
+                        start(month), start(month.plusMonths(1)));
+            } else {
+                continue;
+            }
+            System.out.println("Archived " + archived + " audit entries for " + month);
+        }
+    }
+
+    // Writes the month to a temporary file first, so a crash never leaves a partial archive behind
+    private long archive(YearMonth month) {
+        long[] rows = { 0 };
+        Path target = archiveDir.resolve(TABLE + "-" + month + ".ndjson.gz");
+        Path partial = archiveDir.resolve(target.getFileName() + ".part");
+        try {
+            Files.createDirectories(archiveDir);
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(partial)), StandardCharsets.UTF_8))) {
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            "SELECT id, action, actor_name, actor_role, details, `timestamp` FROM " + TABLE
+                                    + " WHERE `timestamp` >= ? AND `timestamp` < ? ORDER BY id");
+                    statement.setTimestamp(1, start(month));
+                    statement.setTimestamp(2, start(month.plusMonths(1)));
+                    statement.setFetchSize(1000);
+                    return statement;
+                }, resultSet -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("id", resultSet.getLong("id"));
+                    row.put("action", resultSet.getString("action"));
+                    row.put("actorName", resultSet.getString("actor_name"));
+                    row.put("actorRole", resultSet.getString("actor_role"));
+                    row.put("details", resultSet.getString("details"));
+                    row.put("timestamp", resultSet.getTimestamp("timestamp").toLocalDateTime());
+                    try {
+                        writer.write(objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    rows[0]++;
+                });
+            }
+            if (rows[0] == 0) {
+                Files.delete(partial);
+            } else {
+                Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return rows[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not archive audit entries for " + month, e);
+        }
+    }
+
+    /**
+     * Partitions the table on first use and adds any missing months up to
+     * {@code through}. Returns whether the table is partitioned.
+     */
+    private boolean ensurePartitions(YearMonth through) {
+        List<String> names = partitionNames();
+        if (names.isEmpty()) {
+            LocalDateTime oldest = jdbcTemplate.queryForObject("SELECT MIN(`timestamp`) FROM " + TABLE,
+                    LocalDateTime.class);
+            YearMonth first = oldest != null ? YearMonth.from(oldest) : YearMonth.now();
+            // One statement, so the table is copied once
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, `timestamp`)"
+                    + " PARTITION BY RANGE COLUMNS(`timestamp`) (" + definitions(first, through) + ")");
+            System.out.println("Partitioned " + TABLE + " by month from " + first + " to " + through);
+            return true;
+        }
+
+        YearMonth last = null;
+        for (String name : names) {
+            if (!name.equals(OVERFLOW)) {
+                YearMonth month = YearMonth.parse(name, PARTITION_NAME);
+                if (last == null || month.isAfter(last))
+                    last = month;
+            }
+        }
+        YearMonth next = last != null ? last.plusMonths(1) : YearMonth.now();
+        if (!next.isAfter(through)) {
+            // pmax only holds rows dated past the last month, so splitting it moves next to nothing
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + OVERFLOW + " INTO ("
+                    + definitions(next, through) + ")");
+            System.out.println("Added " + TABLE + " partitions from " + next + " to " + through);
+        }
+        return true;
+    }
+
+    private static String definitions(YearMonth first, YearMonth through) {
+        StringBuilder sql = new StringBuilder();
+        for (YearMonth month = first; !month.isAfter(through); month = month.plusMonths(1)) {
+            sql.append("PARTITION ").append(month.format(PARTITION_NAME))
+                    .append(" VALUES LESS THAN ('").append(month.plusMonths(1).atDay(1)).append(" 00:00:00'), ");
+        }
+        return sql.append("PARTITION ").append(OVERFLOW).append(" VALUES LESS THAN (MAXVALUE)").toString();
+    }
+
+    private List<String> partitionNames() {
+        return jdbcTemplate.queryForList("SELECT partition_name FROM information_schema.partitions"
+                + " WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL"
+                + " ORDER BY partition_ordinal_position", String.class, TABLE);
+    }
+
+    private boolean isMySql() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> "MySQL"
+                .equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())));
+    }
+
+    private static Timestamp start(YearMonth month) {
+        return Timestamp.valueOf(month.atDay(1).atStartOfDay());
+    }
+}
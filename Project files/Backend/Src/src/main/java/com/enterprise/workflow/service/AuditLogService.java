@@ -1,20 +1,40 @@
 package com.enterprise.workflow.service;
 
+import com.enterprise.workflow.dto.CursorPage;
 import com.enterprise.workflow.entity.AuditLog;
 import com.enterprise.workflow.entity.User;
 import com.enterprise.workflow.repository.AuditLogRepository;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Builds audit entries and hands them to the {@link AuditLogWriter}. Entries
+ * logged inside a transaction are handed over once it commits, so work that is
+ * rolled back leaves no trail.
+ */
 @Service
+@DependsOn("sequenceTableAligner") // Writes at startup, after id sequences are aligned
 @RequiredArgsConstructor
 public class AuditLogService {
 
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
+
+    @Value("${audit.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${audit.page.max-size:500}")
+    private int maxPageSize;
 
     @PostConstruct
     public void init() {
@@ -25,7 +45,7 @@ public class AuditLogService {
                 .details("Audit Log service initialized successfully.")
                 .timestamp(LocalDateTime.now())
                 .build();
-        auditLogRepository.save(startupLog);
+        writeReported(List.of(startupLog));
     }
 
     public void log(String action, User actor, String details) {
@@ -38,10 +58,75 @@ public class AuditLogService {
                 .details(details)
                 .timestamp(LocalDateTime.now())
                 .build();
-        auditLogRepository.save(logEntry);
+        submit(List.of(logEntry));
+    }
+
+    // One entry per detail line for the same action and actor
+    public void logAll(String action, User actor, List<String> details) {
+        if (actor == null || details.isEmpty())
+            return;
+        LocalDateTime now = LocalDateTime.now();
+        submit(details.stream()
+                .map(detail -> AuditLog.builder()
+                        .action(action)
+                        .actorName(actor.getFullName())
+                        .actorRole(actor.getRole().name())
+                        .details(detail)
+                        .timestamp(now)
+                        .build())
+                .toList());
+    }
+
+    private void submit(List<AuditLog> entries) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            auditLogWriter.write(entries);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // The change is already committed, so failing the request now would only hide that
+                writeReported(entries);
+            }
+        });
+    }
+
+    // For SYNC writes that nobody can act on: the failure is logged, and counted in the writer's stats
+    private void writeReported(List<AuditLog> entries) {
+        try {
+            auditLogWriter.write(entries);
+        } catch (IllegalStateException e) {
+            System.out.println("Audit entries were not written: " + e.getMessage());
+        }
+    }
+
+    // Keyset paging: fetch one row past the page to learn whether another page exists
+    @Transactional(readOnly = true)
+    public CursorPage<AuditLog> getLogs(LocalDateTime from, LocalDateTime to, String action, String actor,
+            String cursor, Integer size) {
+        if (from != null && to != null && !from.isBefore(to))
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        List<AuditLog> rows = auditLogRepository.findPage(from, to, blankToNull(action), blankToNull(actor),
+                after != null ? after.timestamp() : null,
+                after != null ? after.id() : null,
+                pageSize + 1);
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            AuditLog last = rows.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getTimestamp(), last.getId()).encode();
+        }
+        return CursorPage.<AuditLog>builder()
+                .items(new ArrayList<>(rows))
+                .nextCursor(nextCursor)
+                .build();
     }
 
-    public List<AuditLog> getAllLogs() {
-        return auditLogRepository.findAllByOrderByTimestampDesc();
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
     }
 }
@@ -0,0 +1,202 @@
+package com.enterprise.workflow.service;
+
+import com.enterprise.workflow.entity.AuditLog;
+import com.enterprise.workflow.repository.AuditLogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes audit entries off the caller's thread. Callers put entries in a
+ * {@link RingBuffer}; one writer thread drains it and inserts them in batches,
+ * once a batch is full or its oldest entry has waited the flush interval. The
+ * inserts use the JDBC batching configured for the pooled audit_logs ids, which
+ * the MySQL driver rewrites into multi-row statements.
+ *
+ * With {@code ASYNC} durability callers return as soon as the entry is queued;
+ * with {@code SYNC} they wait until its batch has committed, and the writer
+ * flushes as soon as it sees a waiting entry, so concurrent waiters share one
+ * insert; a SYNC write that cannot be confirmed throws. When the buffer is
+ * full, callers wait up to the offer timeout for room and then drop the entry.
+ * Shutdown stops intake and flushes what is queued.
+ */
+@Component
+public class AuditLogWriter {
+
+    public enum Durability {
+        ASYNC, SYNC
+    }
+
+    private final AuditLogRepository auditLogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RingBuffer<Entry> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutNanos;
+    private final long syncTimeoutMillis;
+    private final Durability durability;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder unconfirmed = new LongAdder();
+
+    public AuditLogWriter(AuditLogRepository auditLogRepository, TransactionTemplate transactionTemplate,
+            @Value("${audit.writer.capacity:8192}") int capacity,
+            @Value("${audit.writer.batch-size:200}") int batchSize,
+            @Value("${audit.writer.flush-interval-ms:200}") long flushIntervalMillis,
+            @Value("${audit.writer.offer-timeout-ms:50}") long offerTimeoutMillis,
+            @Value("${audit.writer.sync-timeout-ms:5000}") long syncTimeoutMillis,
+            @Value("${audit.writer.durability:ASYNC}") Durability durability) {
+        this.auditLogRepository = auditLogRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.buffer = new RingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+        this.syncTimeoutMillis = syncTimeoutMillis;
+        this.durability = durability;
+        this.writer = new Thread(this::run, "audit-log-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        System.out.println("Audit log writer stopped: " + written.sum() + " entries written, "
+                + dropped.sum() + " dropped, " + failed.sum() + " failed");
+    }
+
+    public void write(List<AuditLog> entries) {
+        if (entries.isEmpty())
+            return;
+        if (!running) {
+            // Intake has stopped; whatever still logs during shutdown is written directly
+            flush(entries.stream().map(entry -> new Entry(entry, null)).toList());
+            return;
+        }
+        List<CompletableFuture<Void>> waits = new ArrayList<>();
+        for (AuditLog entry : entries) {
+            CompletableFuture<Void> flushed = durability == Durability.SYNC ? new CompletableFuture<>() : null;
+            if (enqueue(new Entry(entry, flushed)) && flushed != null)
+                waits.add(flushed);
+        }
+        if (durability == Durability.SYNC || buffer.size() >= batchSize)
+            LockSupport.unpark(writer);
+        if (waits.isEmpty())
+            return;
+        try {
+            CompletableFuture.allOf(waits.toArray(new CompletableFuture<?>[0])).get(syncTimeoutMillis,
+                    TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // Failed batches are already counted by flush; this counts waits that ran out
+            if (!(e instanceof ExecutionException))
+                unconfirmed.add(waits.size());
+            if (e instanceof InterruptedException)
+                Thread.currentThread().interrupt();
+            throw new IllegalStateException("Audit entry was not written", e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("durability", durability);
+        stats.put("queueDepth", buffer.size());
+        stats.put("capacity", buffer.capacity());
+        stats.put("written", written.sum());
+        stats.put("batches", batches.sum());
+        stats.put("failed", failed.sum());
+        stats.put("blocked", blocked.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("unconfirmed", unconfirmed.sum());
+        return stats;
+    }
+
+    private boolean enqueue(Entry entry) {
+        if (buffer.offer(entry))
+            return true;
+        blocked.increment();
+        LockSupport.unpark(writer);
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (buffer.offer(entry))
+                return true;
+        }
+        dropped.increment();
+        if (entry.flushed() != null)
+            throw new IllegalStateException("Audit log buffer is full");
+        return false;
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        long oldestAt = 0;
+        boolean waiting = false;
+        while (running || buffer.size() > 0 || !batch.isEmpty()) {
+            int before = batch.size();
+            buffer.drainTo(batch, batchSize - before);
+            if (before == 0 && !batch.isEmpty())
+                oldestAt = System.nanoTime();
+            for (int i = before; i < batch.size(); i++) {
+                waiting |= batch.get(i).flushed() != null;
+            }
+
+            long waited = System.nanoTime() - oldestAt;
+            if (!batch.isEmpty() && (batch.size() >= batchSize || waiting || !running
+                    || waited >= flushIntervalNanos)) {
+                flush(batch);
+                batch.clear();
+                waiting = false;
+                continue;
+            }
+            LockSupport.parkNanos(this, batch.isEmpty() ? flushIntervalNanos : flushIntervalNanos - waited);
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> auditLogRepository.saveAll(
+                    batch.stream().map(Entry::log).toList()));
+            written.add(batch.size());
+            batches.increment();
+            batch.forEach(entry -> {
+                if (entry.flushed() != null)
+                    entry.flushed().complete(null);
+            });
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+            System.out.println("Failed to write " + batch.size() + " audit entries: " + e.getMessage());
+            batch.forEach(entry -> {
+                if (entry.flushed() != null)
+                    entry.flushed().completeExceptionally(e);
+            });
+        }
+    }
+
+    private record Entry(AuditLog log, CompletableFuture<Void> flushed) {
+    }
+}
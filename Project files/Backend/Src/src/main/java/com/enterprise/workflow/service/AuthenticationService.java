@@ -25,6 +25,7 @@ public class AuthenticationService {
         private final JwtService jwtService;
         private final AuthenticationManager authenticationManager;
         private final AuditLogService auditLogService;
+        private final WorkloadIndex workloadIndex;
 
         public AuthenticationResponse register(RegisterRequest request) {
                 var user = User.builder()
@@ -34,6 +35,7 @@ public class AuthenticationService {
                                 .role(request.getRole() != null ? request.getRole() : Role.USER)
                                 .build();
                 repository.save(user); // Add specific error handling for duplicate user
+                workloadIndex.userSaved(user);
 
                 auditLogService.log("USER_REGISTER", user, "User registered with role: " + user.getRole());
 
@@ -0,0 +1,317 @@
+package com.enterprise.workflow.service;
+
+import com.enterprise.workflow.dto.AnalyticsResponse;
+import com.enterprise.workflow.entity.Workflow;
+import com.enterprise.workflow.entity.WorkflowStatus;
+import com.enterprise.workflow.repository.WorkflowRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+/**
+ * Full-scan analytics for ad-hoc reports and backfills. Instances are loaded
+ * into primitive columns and every report section is computed in one fused pass,
+ * split fork-join across cores with per-task partial aggregates merged at the end.
+ */
+@Component
+@RequiredArgsConstructor
+public class ColumnarAnalyticsEngine {
+
+    private static final int SPLIT_THRESHOLD = 1 << 16;
+    private static final int STATUS_COUNT = WorkflowStatus.values().length;
+    private static final int APPROVED = WorkflowStatus.APPROVED.ordinal();
+    private static final int REJECTED = WorkflowStatus.REJECTED.ordinal();
+    private static final int PENDING = WorkflowStatus.PENDING.ordinal();
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final long MICROS_PER_DAY = 86_400L * MICROS_PER_SECOND;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WorkflowRepository workflowRepository;
+
+    @Value("${analytics.engine.fetch-size:1000}")
+    private int fetchSize;
+
+    // Read-only so that the scan is served by a replica when one is configured
+    @Transactional(readOnly = true)
+    public AnalyticsResponse computeFromDatabase() {
+        Map<Long, String> titles = workflowRepository.findAll().stream()
+                .collect(Collectors.toMap(Workflow::getId, Workflow::getTitle));
+        return compute(load(), titles, LocalDate.now());
+    }
+
+    public InstanceColumns load() {
+        InstanceColumns columns = new InstanceColumns(1024);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT workflow_id, status, submitted_at, updated_at FROM workflow_instances");
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, rs -> {
+            columns.add(rs.getLong(1), WorkflowStatus.valueOf(rs.getString(2)),
+                    rs.getObject(3, LocalDateTime.class), rs.getObject(4, LocalDateTime.class));
+        });
+        return columns;
+    }
+
+    public AnalyticsResponse compute(InstanceColumns columns, Map<Long, String> titles, LocalDate today) {
+        long firstTrendDay = today.minusDays(AnalyticsStore.TREND_DAYS).toEpochDay();
+        Partial totals = ForkJoinPool.commonPool()
+                .invoke(new ScanTask(columns, 0, columns.size, firstTrendDay, today.toEpochDay()));
+
+        return AnalyticsResponse.builder()
+                .summary(summary(totals, columns.size))
+                .performance(performance(totals, columns, titles))
+                .statusDistribution(statusDistribution(totals))
+                .trends(trends(totals, firstTrendDay))
+                .build();
+    }
+
+    private AnalyticsResponse.SummaryStats summary(Partial totals, int total) {
+        if (total == 0)
+            return new AnalyticsResponse.SummaryStats(0, 0, 0, 0);
+        long timed = Arrays.stream(totals.timedCount).sum();
+        long durationSeconds = Arrays.stream(totals.durationSeconds).sum();
+        return AnalyticsResponse.SummaryStats.builder()
+                .totalWorkflows(total)
+                .completionRate((double) totals.statusCounts[APPROVED] / total * 100)
+                .averageCompletionTimeHours(averageHours(durationSeconds, timed))
+                .totalPending(totals.statusCounts[PENDING])
+                .build();
+    }
+
+    private List<AnalyticsResponse.WorkflowPerformance> performance(Partial totals, InstanceColumns columns,
+            Map<Long, String> titles) {
+        List<AnalyticsResponse.WorkflowPerformance> performance = new ArrayList<>();
+        for (int w = 0; w < columns.workflowCount(); w++) {
+            if (totals.instanceCount[w] == 0)
+                continue;
+            LatencyHistogram latency = totals.latency[w] != null ? totals.latency[w] : new LatencyHistogram();
+            long p90 = latency.percentile(90);
+            performance.add(AnalyticsResponse.WorkflowPerformance.builder()
+                    .workflowTitle(titles.get(columns.workflowIds[w]))
+                    .completedCount(totals.completedCount[w])
+                    .averageTimeHours(averageHours(totals.durationSeconds[w], totals.timedCount[w]))
+                    .p50Seconds(latency.percentile(50))
+                    .p90Seconds(p90)
+                    .p99Seconds(latency.percentile(99))
+                    .maxSeconds(latency.max())
+                    .bottleneckRisk(AnalyticsStore.bottleneckRisk(p90))
+                    .build());
+        }
+        performance.sort(Comparator.comparingLong(AnalyticsResponse.WorkflowPerformance::getP90Seconds).reversed());
+        return performance;
+    }
+
+    private Map<String, Long> statusDistribution(Partial totals) {
+        Map<String, Long> distribution = new HashMap<>();
+        for (WorkflowStatus status : WorkflowStatus.values()) {
+            long count = totals.statusCounts[status.ordinal()];
+            if (count > 0)
+                distribution.put(status.name(), count);
+        }
+        return distribution;
+    }
+
+    private List<AnalyticsResponse.DailyTrend> trends(Partial totals, long firstTrendDay) {
+        List<AnalyticsResponse.DailyTrend> trends = new ArrayList<>();
+        for (int d = 0; d < totals.submittedByDay.length; d++) {
+            if (totals.submittedByDay[d] == 0 && totals.completedByDay[d] == 0)
+                continue;
+            LocalDate day = LocalDate.ofEpochDay(firstTrendDay + d);
+            trends.add(AnalyticsResponse.DailyTrend.builder()
+                    .day(day)
+                    .date(day.format(AnalyticsStore.TREND_FORMAT))
+                    .completedCount(totals.completedByDay[d])
+                    .submittedCount(totals.submittedByDay[d])
+                    .build());
+        }
+        return trends;
+    }
+
+    private static double averageHours(long durationSeconds, long count) {
+        return count > 0 ? (double) durationSeconds / count / 3600 : 0.0;
+    }
+
+    /**
+     * Column-oriented copy of the fields the report needs. Timestamps are local
+     * date-times encoded as microseconds since 1970-01-01T00:00 (the column
+     * precision), so day buckets are a plain division and durations truncate to
+     * whole seconds exactly as TIMESTAMPDIFF does; workflow ids are mapped to
+     * dense indexes.
+     */
+    public static class InstanceColumns {
+        private int size;
+        private int[] status;
+        private int[] workflow;
+        private long[] submitted;
+        private long[] updated;
+        private long[] workflowIds = new long[16];
+        private final Map<Long, Integer> workflowIndex = new HashMap<>();
+
+        public InstanceColumns(int capacity) {
+            status = new int[capacity];
+            workflow = new int[capacity];
+            submitted = new long[capacity];
+            updated = new long[capacity];
+        }
+
+        public void add(long workflowId, WorkflowStatus instanceStatus, LocalDateTime submittedAt,
+                LocalDateTime updatedAt) {
+            if (size == status.length)
+                grow();
+            status[size] = instanceStatus.ordinal();
+            workflow[size] = indexOf(workflowId);
+            submitted[size] = encode(submittedAt);
+            updated[size] = encode(updatedAt);
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        int workflowCount() {
+            return workflowIndex.size();
+        }
+
+        private int indexOf(long workflowId) {
+            return workflowIndex.computeIfAbsent(workflowId, id -> {
+                int index = workflowIndex.size();
+                if (index == workflowIds.length)
+                    workflowIds = Arrays.copyOf(workflowIds, index * 2);
+                workflowIds[index] = id;
+                return index;
+            });
+        }
+
+        private void grow() {
+            int capacity = Math.max(16, status.length * 2);
+            status = Arrays.copyOf(status, capacity);
+            workflow = Arrays.copyOf(workflow, capacity);
+            submitted = Arrays.copyOf(submitted, capacity);
+            updated = Arrays.copyOf(updated, capacity);
+        }
+
+        private static long encode(LocalDateTime timestamp) {
+            if (timestamp == null)
+                return NO_TIMESTAMP;
+            return timestamp.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + timestamp.getNano() / 1_000;
+        }
+    }
+
+    private static class Partial {
+        private final long[] statusCounts = new long[STATUS_COUNT];
+        private final long[] instanceCount;
+        private final long[] completedCount;
+        private final long[] timedCount;
+        private final long[] durationSeconds;
+        private final LatencyHistogram[] latency;
+        private final long[] submittedByDay = new long[AnalyticsStore.TREND_DAYS + 1];
+        private final long[] completedByDay = new long[AnalyticsStore.TREND_DAYS + 1];
+
+        private Partial(int workflows) {
+            instanceCount = new long[workflows];
+            completedCount = new long[workflows];
+            timedCount = new long[workflows];
+            durationSeconds = new long[workflows];
+            latency = new LatencyHistogram[workflows];
+        }
+
+        private Partial merge(Partial other) {
+            for (int s = 0; s < STATUS_COUNT; s++)
+                statusCounts[s] += other.statusCounts[s];
+            for (int w = 0; w < instanceCount.length; w++) {
+                instanceCount[w] += other.instanceCount[w];
+                completedCount[w] += other.completedCount[w];
+                timedCount[w] += other.timedCount[w];
+                durationSeconds[w] += other.durationSeconds[w];
+                if (other.latency[w] != null) {
+                    if (latency[w] == null)
+                        latency[w] = other.latency[w];
+                    else
+                        latency[w].merge(other.latency[w]);
+                }
+            }
+            for (int d = 0; d < submittedByDay.length; d++) {
+                submittedByDay[d] += other.submittedByDay[d];
+                completedByDay[d] += other.completedByDay[d];
+            }
+            return this;
+        }
+    }
+
+    private static class ScanTask extends RecursiveTask<Partial> {
+        private final InstanceColumns columns;
+        private final int from;
+        private final int to;
+        private final long firstTrendDay;
+        private final long lastTrendDay;
+
+        private ScanTask(InstanceColumns columns, int from, int to, long firstTrendDay, long lastTrendDay) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.firstTrendDay = firstTrendDay;
+            this.lastTrendDay = lastTrendDay;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                ScanTask left = new ScanTask(columns, from, mid, firstTrendDay, lastTrendDay);
+                left.fork();
+                Partial right = new ScanTask(columns, mid, to, firstTrendDay, lastTrendDay).compute();
+                return left.join().merge(right);
+            }
+            return scan();
+        }
+
+        private Partial scan() {
+            Partial partial = new Partial(columns.workflowCount());
+            int[] status = columns.status;
+            int[] workflow = columns.workflow;
+            long[] submitted = columns.submitted;
+            long[] updated = columns.updated;
+            for (int i = from; i < to; i++) {
+                int s = status[i];
+                int w = workflow[i];
+                partial.statusCounts[s]++;
+                partial.instanceCount[w]++;
+
+                long submittedDay = Math.floorDiv(submitted[i], MICROS_PER_DAY);
+                if (submittedDay >= firstTrendDay && submittedDay <= lastTrendDay)
+                    partial.submittedByDay[(int) (submittedDay - firstTrendDay)]++;
+
+                if (s != APPROVED && s != REJECTED)
+                    continue;
+                partial.completedCount[w]++;
+                if (updated[i] == NO_TIMESTAMP)
+                    continue;
+                long seconds = Math.floorDiv(updated[i] - submitted[i], MICROS_PER_SECOND);
+                partial.timedCount[w]++;
+                partial.durationSeconds[w] += seconds;
+                if (partial.latency[w] == null)
+                    partial.latency[w] = new LatencyHistogram();
+                partial.latency[w].record(seconds);
+
+                long completedDay = Math.floorDiv(updated[i], MICROS_PER_DAY);
+                if (completedDay >= firstTrendDay && completedDay <= lastTrendDay)
+                    partial.completedByDay[(int) (completedDay - firstTrendDay)]++;
+            }
+            return partial;
+        }
+    }
+}
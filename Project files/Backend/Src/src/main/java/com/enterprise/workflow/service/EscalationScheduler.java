@@ -0,0 +1,163 @@
+package com.enterprise.workflow.service;
+
+import com.enterprise.workflow.entity.Priority;
+import com.enterprise.workflow.entity.WorkflowInstance;
+import com.enterprise.workflow.entity.WorkflowStatus;
+import com.enterprise.workflow.repository.WorkflowInstanceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Due-date timers for open instances, held in a {@link TimingWheel} instead of
+ * polling the table. Each open instance with a due date has a reminder, set
+ * ahead of the due date by a lead that grows with its priority, and an
+ * escalation at the due date itself. The timers are loaded from the database
+ * on startup and replaced whenever an instance is submitted, decided or has its
+ * due date or priority edited; escalated instances keep no timers until their
+ * due date moves.
+ *
+ * Expired timers are handed to {@link EscalationService} on a single background
+ * thread, so the tick itself only moves the wheel. An action that fails is put
+ * back on the wheel with a doubling delay, until it succeeds or the instance's
+ * timers are replaced.
+ */
+@Component
+public class EscalationScheduler {
+
+    private final WorkflowInstanceRepository instanceRepository;
+    private final EscalationService escalationService;
+    private final TransactionTemplate transactionTemplate;
+    private final TimingWheel<Action> wheel;
+    private final Map<Priority, Long> reminderLeadMillis;
+    private final long retryInitialMillis;
+    private final long retryMaxMillis;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "due-date-escalations");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public EscalationScheduler(WorkflowInstanceRepository instanceRepository,
+            EscalationService escalationService, TransactionTemplate transactionTemplate,
+            @Value("${instances.sla.tick-ms:1000}") long tickMillis,
+            @Value("${instances.sla.reminder-lead-minutes.high:1440}") long highLeadMinutes,
+            @Value("${instances.sla.reminder-lead-minutes.medium:240}") long mediumLeadMinutes,
+            @Value("${instances.sla.reminder-lead-minutes.low:60}") long lowLeadMinutes,
+            @Value("${instances.sla.retry-initial-ms:5000}") long retryInitialMillis,
+            @Value("${instances.sla.retry-max-ms:300000}") long retryMaxMillis) {
+        this.instanceRepository = instanceRepository;
+        this.escalationService = escalationService;
+        this.transactionTemplate = transactionTemplate;
+        this.wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+        this.reminderLeadMillis = Map.of(
+                Priority.HIGH, TimeUnit.MINUTES.toMillis(highLeadMinutes),
+                Priority.MEDIUM, TimeUnit.MINUTES.toMillis(mediumLeadMinutes),
+                Priority.LOW, TimeUnit.MINUTES.toMillis(lowLeadMinutes));
+        this.retryInitialMillis = retryInitialMillis;
+        this.retryMaxMillis = retryMaxMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            try (Stream<WorkflowInstanceRepository.DueDate> rows = instanceRepository.streamPendingDueDates()) {
+                rows.forEach(row -> schedule(row.getId(), row.getDueDate(), row.getPriority()));
+            }
+        });
+        System.out.println("Due-date timers loaded: " + pending.size() + " instances");
+    }
+
+    @Scheduled(fixedRateString = "${instances.sla.tick-ms:1000}")
+    public void tick() {
+        for (Action action : wheel.advanceTo(System.currentTimeMillis())) {
+            if (action.escalation()) {
+                pending.computeIfPresent(action.instanceId(),
+                        (id, timers) -> timers.dueDate().equals(action.dueDate()) ? null : timers);
+            }
+            dispatcher.execute(() -> run(action));
+        }
+    }
+
+    /**
+     * Replaces the instance's timers to match its committed state: none once it
+     * is decided, has no due date or has already been escalated.
+     */
+    public void track(WorkflowInstance instance) {
+        boolean open = instance.getStatus() == WorkflowStatus.PENDING
+                || instance.getStatus() == WorkflowStatus.CHANGES_REQUESTED;
+        if (open && instance.getEscalatedAt() == null) {
+            schedule(instance.getId(), instance.getDueDate(), instance.getPriority());
+        } else {
+            schedule(instance.getId(), null, null);
+        }
+    }
+
+    private void schedule(Long instanceId, LocalDateTime dueDate, Priority priority) {
+        pending.compute(instanceId, (id, existing) -> {
+            if (existing != null) {
+                wheel.cancel(existing.reminder());
+                wheel.cancel(existing.escalation());
+            }
+            if (dueDate == null)
+                return null;
+            long dueMillis = dueDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            long remindAt = dueMillis - reminderLeadMillis.get(priority != null ? priority : Priority.MEDIUM);
+            // A reminder whose time has passed is skipped; the escalation still follows
+            TimingWheel.Timer<Action> reminder = remindAt > System.currentTimeMillis()
+                    ? wheel.schedule(remindAt, new Action(id, dueDate, false, 0))
+                    : null;
+            return new Pending(dueDate, reminder, wheel.schedule(dueMillis, new Action(id, dueDate, true, 0)));
+        });
+    }
+
+    private void run(Action action) {
+        try {
+            if (action.escalation()) {
+                escalationService.escalate(action.instanceId(), action.dueDate());
+            } else {
+                escalationService.remind(action.instanceId(), action.dueDate());
+            }
+        } catch (RuntimeException e) {
+            long delay = Math.min(retryMaxMillis, retryInitialMillis << Math.min(action.attempt(), 30));
+            System.out.println("Due-date action failed for instance " + action.instanceId() + ", retrying in "
+                    + delay + " ms: " + e.getMessage());
+            retry(action, System.currentTimeMillis() + delay);
+        }
+    }
+
+    // Re-arms a failed action in the instance's timers, so that replacing them also cancels the retry
+    private void retry(Action action, long atMillis) {
+        Action next = new Action(action.instanceId(), action.dueDate(), action.escalation(), action.attempt() + 1);
+        pending.compute(action.instanceId(), (id, existing) -> {
+            if (action.escalation()) {
+                // The escalation left the timers when it fired; any there now are newer and take over
+                return existing != null ? existing
+                        : new Pending(action.dueDate(), null, wheel.schedule(atMillis, next));
+            }
+            if (existing == null || !existing.dueDate().equals(action.dueDate()))
+                return existing;
+            return new Pending(existing.dueDate(), wheel.schedule(atMillis, next), existing.escalation());
+        });
+    }
+
+    private record Action(Long instanceId, LocalDateTime dueDate, boolean escalation, int attempt) {
+    }
+
+    private record Pending(LocalDateTime dueDate, TimingWheel.Timer<Action> reminder,
+            TimingWheel.Timer<Action> escalation) {
+    }
+}
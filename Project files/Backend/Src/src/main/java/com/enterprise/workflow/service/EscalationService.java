@@ -0,0 +1,141 @@
+package com.enterprise.workflow.service;
+
+import com.enterprise.workflow.entity.Role;
+import com.enterprise.workflow.entity.WorkflowInstance;
+import com.enterprise.workflow.entity.WorkflowStatus;
+import com.enterprise.workflow.event.ReminderDue;
+import com.enterprise.workflow.event.TaskEscalated;
+import com.enterprise.workflow.repository.UserRepository;
+import com.enterprise.workflow.repository.WorkflowInstanceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Due-date actions fired by {@link EscalationScheduler}. A reminder notifies
+ * whoever holds the task; an escalation hands an overdue task to the
+ * least-loaded other user with the role its current step needs (managers for
+ * unstepped instances), falling back to admins when nobody else holds that
+ * role. Both re-check the instance first, so a timer that raced with a
+ * decision or a due-date edit does nothing. Notifications and the audit entry
+ * go through the outbox with the change.
+ */
+@Service
+@RequiredArgsConstructor
+public class EscalationService {
+
+    private final WorkflowInstanceRepository instanceRepository;
+    private final UserRepository userRepository;
+    private final OutboxService outboxService;
+    private final WorkloadIndex workloadIndex;
+    private final WorkflowCatalog workflowCatalog;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final String SYSTEM = "SYSTEM";
+
+    @Value("${instances.transition.max-attempts:3}")
+    private int maxAttempts;
+
+    public void remind(Long instanceId, LocalDateTime dueDate) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            WorkflowInstance instance = load(instanceId);
+            if (!isDue(instance, dueDate))
+                return;
+            Long recipientId = instance.getAssignedTo() != null ? instance.getAssignedTo().getId()
+                    : instance.getUser().getId();
+            outboxService.publish(new ReminderDue(instanceId, SYSTEM, SYSTEM, recipientId,
+                    instance.getWorkflow().getTitle(), dueDate));
+        });
+    }
+
+    public void escalate(Long instanceId, LocalDateTime dueDate) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                Reassignment result = transactionTemplate.execute(tx -> escalateOnce(instanceId, dueDate));
+                if (result != null && !Objects.equals(result.fromUserId(), result.toUserId())) {
+                    workloadIndex.moved(result.fromUserId(), true, result.toUserId(), true);
+                }
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts)
+                    throw e;
+                System.out.println("Retrying escalation of instance " + instanceId + " after a concurrent change");
+            }
+        }
+    }
+
+    private Reassignment escalateOnce(Long instanceId, LocalDateTime dueDate) {
+        WorkflowInstance instance = load(instanceId);
+        if (!isDue(instance, dueDate) || instance.getEscalatedAt() != null)
+            return null;
+
+        Long ownerId = instance.getUser().getId();
+        Long previousAssigneeId = instance.getAssignedTo() != null ? instance.getAssignedTo().getId() : null;
+        Set<Long> excluded = new HashSet<>();
+        excluded.add(ownerId);
+        if (previousAssigneeId != null)
+            excluded.add(previousAssigneeId);
+        Long nextAssigneeId = workloadIndex.leastLoaded(escalationRole(instance), excluded);
+        if (nextAssigneeId == null)
+            nextAssigneeId = workloadIndex.leastLoaded(Role.ADMIN, excluded);
+
+        instance.setEscalatedAt(LocalDateTime.now());
+        String previousName = instance.getAssignedTo() != null ? instance.getAssignedTo().getFullName() : null;
+        if (nextAssigneeId != null) {
+            instance.setAssignedTo(userRepository.getReferenceById(nextAssigneeId));
+            instance.setClaimExpiresAt(null);
+        }
+        outboxService.publish(new TaskEscalated(instanceId, SYSTEM, SYSTEM, ownerId, previousAssigneeId,
+                previousName, nextAssigneeId,
+                instance.getAssignedTo() != null ? instance.getAssignedTo().getFullName() : null,
+                instance.getWorkflow().getTitle(), dueDate));
+        return new Reassignment(previousAssigneeId, nextAssigneeId != null ? nextAssigneeId : previousAssigneeId);
+    }
+
+    private WorkflowInstance load(Long instanceId) {
+        return instanceRepository.findAllWithOwnerByIdIn(List.of(instanceId)).stream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    // Still open and still due at the time the timer was set for, to the second since
+    // the timer may hold a finer value than the column keeps
+    private static boolean isDue(WorkflowInstance instance, LocalDateTime dueDate) {
+        return instance != null && instance.getDueDate() != null
+                && dueDate.truncatedTo(ChronoUnit.SECONDS)
+                        .equals(instance.getDueDate().truncatedTo(ChronoUnit.SECONDS))
+                && (instance.getStatus() == WorkflowStatus.PENDING
+                        || instance.getStatus() == WorkflowStatus.CHANGES_REQUESTED);
+    }
+
+    private Role escalationRole(WorkflowInstance instance) {
+        Role role = Role.MANAGER;
+        if (instance.getCurrentStep() != null) {
+            Long stepId = instance.getCurrentStep().getId();
+            WorkflowCatalog.Definition definition = workflowCatalog.find(instance.getWorkflow().getId());
+            if (definition != null) {
+                role = definition.steps().stream()
+                        .filter(step -> step.id().equals(stepId))
+                        .map(WorkflowCatalog.Step::requiredRole)
+                        .findFirst()
+                        .orElse(Role.MANAGER);
+            }
+        }
+        // Same rule as WorkflowInstanceService.decisionError: managers only decide requests submitted by users
+        if (role == Role.MANAGER && instance.getUser().getRole() != Role.USER)
+            return Role.ADMIN;
+        return role;
+    }
+
+    private record Reassignment(Long fromUserId, Long toUserId) {
+    }
+}
@@ -0,0 +1,237 @@
+package com.enterprise.workflow.service;
+
+import com.enterprise.workflow.entity.WorkflowInstance;
+import com.enterprise.workflow.repository.WorkflowInstanceRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over the searchable text of workflow instances: the
+ * workflow title, description, remarks and applicant name. Text is split into
+ * lower-case alphanumeric tokens; a query term matches any token it is a prefix
+ * of (sorted token dictionary) or, for terms of three or more characters, that
+ * contains it (trigram index over the dictionary). All query terms must
+ * match for an instance to be returned. Each instance's submission time is kept
+ * alongside its tokens, so matches come back in list order and a keyset cursor
+ * can be applied without reading the table.
+ */
+@Component
+@RequiredArgsConstructor
+public class InstanceSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final WorkflowInstanceRepository instanceRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> trigramTokens = new HashMap<>();
+    private final Map<Long, Set<String>> documentTokens = new HashMap<>();
+    private final Map<Long, LocalDateTime> submittedAt = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            trigramTokens.clear();
+            documentTokens.clear();
+            submittedAt.clear();
+            transactionTemplate.executeWithoutResult(tx -> {
+                try (Stream<WorkflowInstanceRepository.SearchDocument> rows = instanceRepository
+                        .streamSearchDocuments()) {
+                    rows.forEach(this::put);
+                }
+            });
+            System.out.println("Search index rebuilt: " + documentTokens.size() + " instances, "
+                    + postings.size() + " terms");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or re-indexes an instance. The workflow and user associations must be
+     * initialized, which is the case for instances loaded or saved in the request.
+     */
+    public void index(WorkflowInstance instance) {
+        Set<String> tokens = tokenize(instance.getWorkflow().getTitle(), instance.getDescription(),
+                instance.getRemarks(), instance.getUser().getFullName());
+        lock.writeLock().lock();
+        try {
+            put(instance.getId(), instance.getSubmittedAt(), tokens);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-indexes every instance submitted by the given user, whose name is part
+     * of each instance's text. Call after the user's full name has changed.
+     */
+    public void reindexApplicant(Long userId) {
+        lock.writeLock().lock();
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                try (Stream<WorkflowInstanceRepository.SearchDocument> rows = instanceRepository
+                        .streamSearchDocumentsByUserId(userId)) {
+                    rows.forEach(this::put);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of instances matching every term of the query, newest
+     * first by (submittedAt, id) and only those after the given position when
+     * one is set, or null when the query has no searchable terms and so filters
+     * nothing.
+     */
+    public List<Long> search(String query, LocalDateTime afterSubmittedAt, Long afterId) {
+        Set<String> terms = tokenize(query);
+        if (terms.isEmpty())
+            return null;
+
+        Comparator<Long> newestFirst = Comparator.<Long, LocalDateTime>comparing(submittedAt::get)
+                .thenComparing(Comparator.naturalOrder())
+                .reversed();
+        lock.readLock().lock();
+        try {
+            Set<Long> matches = match(terms);
+            Stream<Long> ids = matches.stream();
+            if (afterSubmittedAt != null && afterId != null) {
+                ids = ids.filter(id -> {
+                    int compared = submittedAt.get(id).compareTo(afterSubmittedAt);
+                    return compared < 0 || compared == 0 && id < afterId;
+                });
+            }
+            return ids.sorted(newestFirst).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Long> match(Set<String> terms) {
+        Set<Long> result = null;
+        // Most selective terms first keeps the running intersection small
+        for (String term : terms.stream().sorted(Comparator.comparingInt(String::length).reversed()).toList()) {
+            Set<Long> matches = match(term);
+            if (result == null) {
+                result = matches;
+            } else {
+                result.retainAll(matches);
+            }
+            if (result.isEmpty())
+                break;
+        }
+        return result;
+    }
+
+    private Set<Long> match(String term) {
+        // Short terms only match token prefixes; longer ones match anywhere in a token
+        Collection<String> tokens = term.length() < GRAM
+                ? postings.subMap(term, true, term + Character.MAX_VALUE, false).keySet()
+                : tokensContaining(term);
+        Set<Long> ids = new HashSet<>();
+        for (String token : tokens) {
+            ids.addAll(postings.get(token));
+        }
+        return ids;
+    }
+
+    private Set<String> tokensContaining(String term) {
+        Set<String> candidates = null;
+        for (String gram : trigrams(term)) {
+            Set<String> tokens = trigramTokens.get(gram);
+            if (tokens == null)
+                return Set.of();
+            if (candidates == null) {
+                candidates = new HashSet<>(tokens);
+            } else {
+                candidates.retainAll(tokens);
+            }
+        }
+        // Shared trigrams do not guarantee a substring match, so confirm each candidate
+        candidates.removeIf(token -> !token.contains(term));
+        return candidates;
+    }
+
+    private void put(WorkflowInstanceRepository.SearchDocument row) {
+        put(row.getId(), row.getSubmittedAt(), tokenize(row.getTitle(), row.getDescription(), row.getRemarks(),
+                row.getApplicantName()));
+    }
+
+    private void put(Long id, LocalDateTime submitted, Set<String> tokens) {
+        Set<String> previous = documentTokens.remove(id);
+        if (previous != null) {
+            for (String token : previous) {
+                if (tokens.contains(token))
+                    continue;
+                Set<Long> ids = postings.get(token);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                    for (String gram : trigrams(token)) {
+                        Set<String> grams = trigramTokens.get(gram);
+                        grams.remove(token);
+                        if (grams.isEmpty())
+                            trigramTokens.remove(gram);
+                    }
+                }
+            }
+        }
+        if (tokens.isEmpty()) {
+            submittedAt.remove(id);
+            return;
+        }
+        for (String token : tokens) {
+            Set<Long> ids = postings.get(token);
+            if (ids == null) {
+                ids = new HashSet<>();
+                postings.put(token, ids);
+                for (String gram : trigrams(token)) {
+                    trigramTokens.computeIfAbsent(gram, g -> new HashSet<>()).add(token);
+                }
+            }
+            ids.add(id);
+        }
+        documentTokens.put(id, tokens);
+        submittedAt.put(id, submitted);
+    }
+
+    static Set<String> tokenize(String... fields) {
+        Set<String> tokens = new HashSet<>();
+        for (String field : fields) {
+            if (field == null)
+                continue;
+            for (String token : field.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (!token.isEmpty())
+                    tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static List<String> trigrams(String token) {
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            grams.add(token.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
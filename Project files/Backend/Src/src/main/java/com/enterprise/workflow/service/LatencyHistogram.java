@@ -0,0 +1,134 @@
+package com.enterprise.workflow.service;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-size latency histogram over whole seconds using HDR-style log buckets:
+ * each power-of-two range is split into {@value #SUB_BUCKETS} linear sub-buckets,
+ * so recorded values keep roughly 3% relative precision from one second up to
+ * decades. Histograms with the same layout can be merged by adding counts.
+ * The largest recorded value is tracked exactly next to the buckets.
+ * Instances are not thread-safe; callers guard them like any other counter.
+ * {@link #toBytes()} stores the non-empty buckets so rollup rows can carry one.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 36; // ~2000 years in seconds
+    private static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final long MAX_TRACKABLE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long maxValue;
+
+    public void record(long seconds) {
+        record(seconds, 1);
+    }
+
+    public void record(long seconds, long count) {
+        counts[indexOf(seconds)] += count;
+        totalCount += count;
+        maxValue = Math.max(maxValue, clamp(seconds));
+    }
+
+    public void remove(long seconds) {
+        int index = indexOf(seconds);
+        if (counts[index] > 0) {
+            counts[index]--;
+            totalCount--;
+        }
+    }
+
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    /**
+     * Returns the value at the given percentile (0-100), reported as the upper
+     * bound of the bucket that holds it (never above {@link #max()}), or 0 when
+     * nothing has been recorded.
+     */
+    public long percentile(double percentile) {
+        if (totalCount == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return Math.min(highestValueAt(i), max());
+        }
+        return max();
+    }
+
+    /**
+     * Returns the largest recorded value. Once {@link #remove(long)} has taken that
+     * value out, the result is only known to bucket precision and may overstate the
+     * remaining maximum by up to one bucket width.
+     */
+    public long max() {
+        for (int i = BUCKET_COUNT - 1; i >= 0; i--) {
+            if (counts[i] > 0)
+                return Math.min(highestValueAt(i), maxValue);
+        }
+        return 0;
+    }
+
+    public byte[] toBytes() {
+        int used = 0;
+        for (long count : counts) {
+            if (count > 0)
+                used++;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + used * (Short.BYTES + Long.BYTES));
+        buffer.putLong(maxValue);
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] > 0)
+                buffer.putShort((short) i).putLong(counts[i]);
+        }
+        return buffer.array();
+    }
+
+    public static LatencyHistogram fromBytes(byte[] bytes) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        histogram.maxValue = buffer.getLong();
+        while (buffer.remaining() >= Short.BYTES + Long.BYTES) {
+            int index = buffer.getShort();
+            long count = buffer.getLong();
+            if (index < 0 || index >= BUCKET_COUNT)
+                throw new IllegalArgumentException("Invalid histogram bucket " + index);
+            histogram.counts[index] += count;
+            histogram.totalCount += count;
+        }
+        return histogram;
+    }
+
+    private static long clamp(long seconds) {
+        return Math.min(Math.max(seconds, 0), MAX_TRACKABLE);
+    }
+
+    static int indexOf(long seconds) {
+        long value = clamp(seconds);
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
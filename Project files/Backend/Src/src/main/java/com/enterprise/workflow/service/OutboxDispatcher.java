@@ -0,0 +1,165 @@
+package com.enterprise.workflow.service;
+
+import com.enterprise.workflow.entity.AuditLog;
+import com.enterprise.workflow.entity.OutboxEvent;
+import com.enterprise.workflow.event.DomainEvent;
+import com.enterprise.workflow.event.FileUploaded;
+import com.enterprise.workflow.event.InstanceSubmitted;
+import com.enterprise.workflow.event.ReminderDue;
+import com.enterprise.workflow.event.StatusChanged;
+import com.enterprise.workflow.event.TaskAssigned;
+import com.enterprise.workflow.event.TaskEscalated;
+import com.enterprise.workflow.model.Notification;
+import com.enterprise.workflow.repository.AuditLogRepository;
+import com.enterprise.workflow.repository.NotificationRepository;
+import com.enterprise.workflow.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drains the outbox in id order. Each batch is delivered in one transaction:
+ * the audit entries and notifications are inserted and the events deleted
+ * together, so a crash part-way redelivers the whole batch and nothing twice.
+ * Batches are claimed with SKIP LOCKED, so several nodes can dispatch at once.
+ * Analytics only needs to know that the live report is stale, which is marked
+ * once the batch has committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxService outboxService;
+    private final AuditLogRepository auditLogRepository;
+    private final NotificationRepository notificationRepository;
+    private final AnalyticsService analyticsService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${outbox.batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${outbox.dispatch-interval-ms:250}")
+    public void dispatch() {
+        int delivered;
+        do {
+            delivered = transactionTemplate.execute(tx -> deliverBatch());
+        } while (delivered == batchSize);
+    }
+
+    private int deliverBatch() {
+        List<OutboxEvent> rows = outboxEventRepository.lockBatch(batchSize);
+        if (rows.isEmpty())
+            return 0;
+
+        List<AuditLog> auditLogs = new ArrayList<>();
+        List<Notification> notifications = new ArrayList<>();
+        boolean analyticsChanged = false;
+        for (OutboxEvent row : rows) {
+            DomainEvent event;
+            try {
+                event = outboxService.read(row);
+            } catch (IllegalArgumentException e) {
+                // Retrying cannot fix it, and keeping it would block every later event
+                System.out.println("Dropping outbox event " + row.getId() + ": " + e.getMessage());
+                continue;
+            }
+            AuditLog auditLog = auditLog(event, row.getCreatedAt());
+            if (auditLog != null)
+                auditLogs.add(auditLog);
+            notifications.addAll(notifications(event, row.getCreatedAt()));
+            analyticsChanged |= event instanceof InstanceSubmitted || event instanceof StatusChanged;
+        }
+
+        auditLogRepository.saveAll(auditLogs);
+        notificationRepository.saveAll(notifications);
+        outboxEventRepository.deleteAllInBatch(rows);
+        if (analyticsChanged) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    analyticsService.liveDataChanged();
+                }
+            });
+        }
+        return rows.size();
+    }
+
+    // Null for events that only notify
+    private static AuditLog auditLog(DomainEvent event, LocalDateTime at) {
+        String action;
+        String details;
+        if (event instanceof InstanceSubmitted submitted) {
+            action = "SUBMIT_WORKFLOW";
+            details = String.format("Submitted request for workflow: %s (Instance ID: %d)",
+                    submitted.workflowTitle(), submitted.instanceId());
+        } else if (event instanceof StatusChanged changed) {
+            action = "UPDATE_STATUS";
+            details = changed.detail();
+        } else if (event instanceof TaskAssigned assigned) {
+            action = "ASSIGN_TASK";
+            details = String.format("Assigned Instance ID %d to %s", assigned.instanceId(), assigned.assigneeName());
+        } else if (event instanceof FileUploaded uploaded) {
+            action = "UPLOAD_FILE";
+            details = String.format("Uploaded file '%s' for Instance ID %d", uploaded.fileName(),
+                    uploaded.instanceId());
+        } else if (event instanceof TaskEscalated escalated) {
+            action = "ESCALATE_TASK";
+            details = String.format("Instance ID %d passed its due date %s; assigned to %s (was %s)",
+                    escalated.instanceId(), escalated.dueDate(),
+                    escalated.assigneeName() != null ? escalated.assigneeName() : "nobody",
+                    escalated.previousAssigneeName() != null ? escalated.previousAssigneeName() : "nobody");
+        } else if (event instanceof ReminderDue) {
+            return null;
+        } else {
+            throw new IllegalArgumentException("No audit entry for " + event);
+        }
+        return AuditLog.builder()
+                .action(action)
+                .actorName(event.actorName())
+                .actorRole(event.actorRole())
+                .details(details)
+                .timestamp(at)
+                .build();
+    }
+
+    private static List<Notification> notifications(DomainEvent event, LocalDateTime at) {
+        List<Notification> notifications = new ArrayList<>();
+        if (event instanceof InstanceSubmitted submitted && submitted.assigneeId() != null) {
+            notifications.add(new Notification(submitted.assigneeId(), String.format(
+                    "You have been assigned the task '%s'.", submitted.workflowTitle())));
+        } else if (event instanceof StatusChanged changed) {
+            notifications.add(new Notification(changed.ownerId(), String.format(
+                    "Update on '%s': %s", changed.workflowTitle(), changed.remarks())));
+        } else if (event instanceof TaskAssigned assigned) {
+            notifications.add(new Notification(assigned.assigneeId(), String.format(
+                    "You have been assigned the task '%s' by %s.", assigned.workflowTitle(), assigned.actorName())));
+        } else if (event instanceof ReminderDue reminder) {
+            notifications.add(new Notification(reminder.recipientId(), String.format(
+                    "Reminder: the task '%s' is due at %s.", reminder.workflowTitle(), reminder.dueDate())));
+        } else if (event instanceof TaskEscalated escalated) {
+            String title = escalated.workflowTitle();
+            if (escalated.assigneeId() != null) {
+                notifications.add(new Notification(escalated.assigneeId(), String.format(
+                        "The overdue task '%s' has been escalated to you.", title)));
+            }
+            if (escalated.previousAssigneeId() != null
+                    && !escalated.previousAssigneeId().equals(escalated.assigneeId())) {
+                notifications.add(new Notification(escalated.previousAssigneeId(), String.format(
+                        "The task '%s' passed its due date and was reassigned.", title)));
+            }
+            notifications.add(new Notification(escalated.ownerId(), String.format(
+                    "Your request '%s' passed its due date and has been escalated.", title)));
+        }
+        notifications.forEach(notification -> notification.setCreatedAt(at));
+        return notifications;
+    }
+}
@@ -0,0 +1,76 @@
+package com.enterprise.workflow.service;
+
+import com.enterprise.workflow.entity.OutboxEvent;
+import com.enterprise.workflow.event.DomainEvent;
+import com.enterprise.workflow.event.FileUploaded;
+import com.enterprise.workflow.event.InstanceSubmitted;
+import com.enterprise.workflow.event.ReminderDue;
+import com.enterprise.workflow.event.StatusChanged;
+import com.enterprise.workflow.event.TaskAssigned;
+import com.enterprise.workflow.event.TaskEscalated;
+import com.enterprise.workflow.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes domain events to the outbox table. Publishing requires the caller's
+ * transaction, so an event exists exactly when the change it describes has
+ * committed; {@link OutboxDispatcher} delivers it later.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private static final Map<String, Class<? extends DomainEvent>> TYPES = Stream
+            .of(InstanceSubmitted.class, StatusChanged.class, TaskAssigned.class, FileUploaded.class,
+                    ReminderDue.class, TaskEscalated.class)
+            .collect(Collectors.toMap(Class::getSimpleName, Function.identity()));
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(DomainEvent event) {
+        outboxEventRepository.save(toRow(event));
+    }
+
+    // The rows are inserted in JDBC batches when the caller's transaction flushes
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(List<? extends DomainEvent> events) {
+        if (!events.isEmpty())
+            outboxEventRepository.saveAll(events.stream().map(this::toRow).toList());
+    }
+
+    DomainEvent read(OutboxEvent row) {
+        Class<? extends DomainEvent> type = TYPES.get(row.getType());
+        if (type == null)
+            throw new IllegalArgumentException("Unknown event type " + row.getType());
+        try {
+            return objectMapper.readValue(row.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unreadable " + row.getType() + " event " + row.getId(), e);
+        }
+    }
+
+    private OutboxEvent toRow(DomainEvent event) {
+        try {
+            return OutboxEvent.builder()
+                    .type(event.getClass().getSimpleName())
+                    .instanceId(event.instanceId())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + event, e);
+        }
+    }
+}
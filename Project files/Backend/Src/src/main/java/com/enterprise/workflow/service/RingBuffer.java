@@ -0,0 +1,92 @@
+package com.enterprise.workflow.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue over a power-of-two ring of slots. Each slot carries
+ * a sequence number saying whose turn it is: a producer claims the tail with
+ * one CAS and publishes by advancing the slot's sequence, and a consumer does
+ * the same at the head. Nobody blocks; a full ring makes {@link #offer} return
+ * false and leaves the choice of waiting or dropping to the caller.
+ */
+public class RingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> items;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public RingBuffer(int minCapacity) {
+        if (minCapacity < 1 || minCapacity > 1 << 30)
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        int capacity = 1;
+        while (capacity < minCapacity) {
+            capacity <<= 1;
+        }
+        this.mask = capacity - 1;
+        this.items = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public boolean offer(T item) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long gap = sequences.get(index) - position;
+            if (gap == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items.set(index, item);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (gap < 0) {
+                return false; // the slot still holds an item from the previous lap
+            }
+            // Otherwise another producer took this position; retry with the new tail
+        }
+    }
+
+    public T poll() {
+        while (true) {
+            long position = head.get();
+            int index = (int) (position & mask);
+            long gap = sequences.get(index) - (position + 1);
+            if (gap == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    T item = items.getAndSet(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return item;
+                }
+            } else if (gap < 0) {
+                return null; // empty, or the producer of this slot has not published yet
+            }
+        }
+    }
+
+    // Moves up to max items into target, oldest first; returns how many were moved
+    public int drainTo(List<T> target, int max) {
+        int moved = 0;
+        T item;
+        while (moved < max && (item = poll()) != null) {
+            target.add(item);
+            moved++;
+        }
+        return moved;
+    }
+
+    // Approximate while producers and consumers are running
+    public int size() {
+        return (int) Math.max(0, Math.min(tail.get() - head.get(), mask + 1L));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
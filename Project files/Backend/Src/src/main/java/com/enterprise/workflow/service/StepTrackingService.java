@@ -0,0 +1,91 @@
+package com.enterprise.workflow.service;
+
+import com.enterprise.workflow.entity.WorkflowInstance;
+import com.enterprise.workflow.entity.WorkflowStep;
+import com.enterprise.workflow.entity.WorkflowStepVisit;
+import com.enterprise.workflow.repository.WorkflowStepVisitRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records when instances enter and leave workflow steps and feeds the resulting
+ * dwell times into the analytics store.
+ */
+@Service
+@RequiredArgsConstructor
+public class StepTrackingService {
+
+    private final WorkflowStepVisitRepository visitRepository;
+    private final AnalyticsStore analyticsStore;
+
+    // Opens one visit per parallel branch of a stage
+    public void enterSteps(WorkflowInstance instance, Collection<WorkflowStep> steps) {
+        LocalDateTime now = LocalDateTime.now();
+        for (WorkflowStep step : steps)
+            openVisit(instance, step, now);
+    }
+
+    // Closes the visit at one branch when it is done while other branches of the stage are still open
+    public void exitStep(WorkflowInstance instance, WorkflowStep step) {
+        visitRepository.findOpenByInstanceIdAndStepId(instance.getId(), step.getId())
+                .ifPresent(visit -> closeVisit(visit, LocalDateTime.now()));
+    }
+
+    /**
+     * Closes the open visits of all given instances with one lookup; the
+     * updates are flushed with the surrounding transaction.
+     */
+    public void exitCurrentSteps(Collection<WorkflowInstance> instances) {
+        if (instances.isEmpty())
+            return;
+        LocalDateTime now = LocalDateTime.now();
+        List<WorkflowStepVisit> visits = visitRepository.findOpenByInstanceIdIn(
+                instances.stream().map(WorkflowInstance::getId).toList());
+        for (WorkflowStepVisit visit : visits) {
+            visit.setExitedAt(now);
+            WorkflowStep step = visit.getStep();
+            long dwellSeconds = Duration.between(visit.getEnteredAt(), now).getSeconds();
+            afterCommit(() -> analyticsStore.recordStepExited(step.getRequiredRole(), step.getName(), dwellSeconds));
+        }
+        visitRepository.saveAll(visits);
+    }
+
+    private void openVisit(WorkflowInstance instance, WorkflowStep step, LocalDateTime now) {
+        visitRepository.save(WorkflowStepVisit.builder()
+                .instance(instance)
+                .step(step)
+                .enteredAt(now)
+                .build());
+        afterCommit(() -> analyticsStore.recordStepEntered(step.getRequiredRole(), step.getName()));
+    }
+
+    private void closeVisit(WorkflowStepVisit visit, LocalDateTime now) {
+        visit.setExitedAt(now);
+        visitRepository.save(visit);
+        WorkflowStep step = visit.getStep();
+        long dwellSeconds = Duration.between(visit.getEnteredAt(), now).getSeconds();
+        afterCommit(() -> analyticsStore.recordStepExited(step.getRequiredRole(), step.getName(), dwellSeconds));
+    }
+
+    // Inside a transaction the store only sees visit changes once they commit, so
+    // a rolled-back or retried attempt is not counted
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.enterprise.workflow.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: {@value #LEVELS} wheels of {@value #SLOTS} slots,
+ * each level's slot spanning a whole turn of the level below, so one-second
+ * ticks cover over two thousand years. A timer sits in the slot of the
+ * coarsest level its deadline needs and moves down a level each time the
+ * wheel reaches that slot, until it expires from the finest level.
+ *
+ * Scheduling and cancelling are O(1) (each slot is a doubly linked list), and
+ * advancing costs one slot per tick plus the timers that move or expire, so
+ * the work does not grow with the number of pending timers. Timers never fire
+ * before their deadline, and at most one tick after it. All methods are
+ * synchronized; payloads are handed back to the caller rather than run here.
+ */
+public class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+
+    private final long tickMillis;
+    private final int levels;
+    private final long maxSpan;
+    private final List<List<Timer<T>>> wheels = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, long startMillis) {
+        this(tickMillis, startMillis, LEVELS);
+    }
+
+    // Fewer levels shorten the span, so that tests can reach timers parked beyond it
+    TimingWheel(long tickMillis, long startMillis, int levels) {
+        if (tickMillis < 1)
+            throw new IllegalArgumentException("Tick must be at least one millisecond");
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.maxSpan = 1L << (SLOT_BITS * levels);
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        for (int level = 0; level < levels; level++) {
+            List<Timer<T>> slots = new ArrayList<>(SLOTS);
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots.add(Timer.sentinel());
+            }
+            wheels.add(slots);
+        }
+    }
+
+    /**
+     * Schedules {@code payload} for {@code deadlineMillis}; a deadline already
+     * passed fires on the next tick. The returned timer can be cancelled.
+     */
+    public synchronized Timer<T> schedule(long deadlineMillis, T payload) {
+        long deadlineTick = Math.max(-Math.floorDiv(-deadlineMillis, tickMillis), currentTick + 1);
+        Timer<T> timer = new Timer<>(deadlineTick, payload);
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    // Returns false when the timer has already fired or been cancelled
+    public synchronized boolean cancel(Timer<T> timer) {
+        if (timer == null || timer.prev == null)
+            return false;
+        timer.unlink();
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis} and returns the payloads of
+     * the timers that expired on the way, in deadline order.
+     */
+    public synchronized List<T> advanceTo(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = 1; level < levels && (currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0; level++) {
+                cascade(level);
+            }
+            Timer<T> head = wheels.get(0).get((int) (currentTick & MASK));
+            while (head.next != head) {
+                Timer<T> timer = head.next;
+                timer.unlink();
+                if (timer.deadlineTick > currentTick) {
+                    place(timer);
+                } else {
+                    size--;
+                    expired.add(timer.payload);
+                }
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Re-places the timers of the level's current slot, which all land on finer levels
+    private void cascade(int level) {
+        Timer<T> head = wheels.get(level).get((int) ((currentTick >>> (SLOT_BITS * level)) & MASK));
+        while (head.next != head) {
+            Timer<T> timer = head.next;
+            timer.unlink();
+            place(timer);
+        }
+    }
+
+    private void place(Timer<T> timer) {
+        long delta = timer.deadlineTick - currentTick;
+        // Beyond the outermost wheel: park in its furthest slot and re-place from there
+        long slotTick = delta < maxSpan ? timer.deadlineTick : currentTick + maxSpan - 1;
+        delta = slotTick - currentTick;
+        int level = 0;
+        while (level < levels - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        timer.linkBefore(wheels.get(level).get((int) ((slotTick >>> (SLOT_BITS * level)) & MASK)));
+    }
+
+    public static final class Timer<T> {
+
+        private final long deadlineTick;
+        private final T payload;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(long deadlineTick, T payload) {
+            this.deadlineTick = deadlineTick;
+            this.payload = payload;
+        }
+
+        private static <T> Timer<T> sentinel() {
+            Timer<T> head = new Timer<>(Long.MIN_VALUE, null);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        private void linkBefore(Timer<T> head) {
+            prev = head.prev;
+            next = head;
+            head.prev.next = this;
+            head.prev = this;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.enterprise.workflow.service;
+
+import com.enterprise.workflow.entity.Role;
+import com.enterprise.workflow.entity.Workflow;
+import com.enterprise.workflow.entity.WorkflowStep;
+import com.enterprise.workflow.repository.WorkflowRepository;
+import com.enterprise.workflow.repository.WorkflowStepRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshots of every workflow definition: the workflow, its steps in
+ * stage order and the creator's name. Readers get the current map from a
+ * volatile reference without locking or database I/O; writers build a new map
+ * and swap it in whole, so a reader never sees a workflow without its steps.
+ *
+ * Definitions change through {@link WorkflowService}, which refreshes the
+ * workflow after each commit. The periodic reload picks up changes made by
+ * other nodes or directly in the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class WorkflowCatalog {
+
+    // Bounds the remembered misses, so lookups of arbitrary ids cannot grow them without limit
+    private static final int MAX_MISSES = 10_000;
+
+    private final WorkflowRepository workflowRepository;
+    private final WorkflowStepRepository stepRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Unmodifiable, ordered by id; replaced, never changed
+    private volatile Map<Long, Definition> definitions = Map.of();
+
+    // Ids looked up and not found since the last reload
+    private final Set<Long> missing = ConcurrentHashMap.newKeySet();
+
+    // After startup runners, so workflows seeded on a fresh database are included
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        reload();
+    }
+
+    @Scheduled(initialDelayString = "${workflows.catalog.reload-interval-ms:300000}",
+            fixedDelayString = "${workflows.catalog.reload-interval-ms:300000}")
+    public synchronized void reload() {
+        definitions = transactionTemplate.execute(tx -> {
+            Map<Long, List<WorkflowStep>> steps = stepRepository.findAllOrdered().stream()
+                    .collect(Collectors.groupingBy(step -> step.getWorkflow().getId()));
+            Map<Long, Definition> loaded = new TreeMap<>();
+            for (Workflow workflow : workflowRepository.findAllWithCreator()) {
+                loaded.put(workflow.getId(),
+                        Definition.of(workflow, steps.getOrDefault(workflow.getId(), List.of())));
+            }
+            return Collections.unmodifiableMap(loaded);
+        });
+        missing.clear();
+        System.out.println("Workflow catalog loaded: " + definitions.size() + " workflows");
+    }
+
+    /**
+     * Reloads one workflow and swaps in a copy of the catalog with it replaced,
+     * or removed if it no longer exists. Returns the new definition.
+     */
+    public synchronized Definition refresh(Long workflowId) {
+        Definition definition = transactionTemplate.execute(tx -> workflowRepository.findWithCreatorById(workflowId)
+                .map(workflow -> Definition.of(workflow, stepRepository.findByWorkflowIdIn(List.of(workflowId))))
+                .orElse(null));
+        Map<Long, Definition> copy = new TreeMap<>(definitions);
+        if (definition != null) {
+            copy.put(workflowId, definition);
+            missing.remove(workflowId);
+        } else {
+            copy.remove(workflowId);
+            if (missing.size() >= MAX_MISSES)
+                missing.clear();
+            missing.add(workflowId);
+        }
+        definitions = Collections.unmodifiableMap(copy);
+        return definition;
+    }
+
+    /**
+     * The definition of a workflow, or null if there is none. A workflow missing
+     * from the snapshot is looked up once in the database in case it was added
+     * since the last reload; if it is not there either, the miss is remembered
+     * until the next reload so repeated lookups of the id stay off the database.
+     */
+    public Definition find(Long workflowId) {
+        Definition definition = definitions.get(workflowId);
+        if (definition != null || missing.contains(workflowId))
+            return definition;
+        return refresh(workflowId);
+    }
+
+    public Collection<Definition> all() {
+        return definitions.values();
+    }
+
+    public record Definition(Long id, String title, String description, String createdBy,
+            LocalDateTime createdAt, List<Step> steps) {
+
+        static Definition of(Workflow workflow, List<WorkflowStep> steps) {
+            return new Definition(workflow.getId(), workflow.getTitle(), workflow.getDescription(),
+                    workflow.getCreatedBy().getFullName(), workflow.getCreatedAt(),
+                    steps.stream().map(Step::of).toList());
+        }
+
+        /**
+         * A detached workflow carrying the snapshot's columns. Instances only
+         * write its id as their foreign key, so it can stand in for the entity
+         * without loading it.
+         */
+        public Workflow toWorkflow() {
+            return Workflow.builder()
+                    .id(id)
+                    .title(title)
+                    .description(description)
+                    .createdAt(createdAt)
+                    .build();
+        }
+
+        // Fresh detached copies on every call, so callers never share mutable entities
+        public List<WorkflowStep> toSteps() {
+            Workflow workflow = toWorkflow();
+            return steps.stream().map(step -> step.toStep(workflow)).toList();
+        }
+    }
+
+    public record Step(Long id, String name, Role requiredRole, Integer stepOrder, Integer approvalsRequired) {
+
+        static Step of(WorkflowStep step) {
+            return new Step(step.getId(), step.getName(), step.getRequiredRole(), step.getStepOrder(),
+                    step.getApprovalsRequired());
+        }
+
+        WorkflowStep toStep(Workflow workflow) {
+            return WorkflowStep.builder()
+                    .id(id)
+                    .workflow(workflow)
+                    .name(name)
+                    .requiredRole(requiredRole)
+                    .stepOrder(stepOrder)
+                    .approvalsRequired(approvalsRequired)
+                    .build();
+        }
+    }
+}
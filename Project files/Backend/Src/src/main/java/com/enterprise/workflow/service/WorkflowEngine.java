@@ -0,0 +1,175 @@
+package com.enterprise.workflow.service;
+
+import com.enterprise.workflow.entity.User;
+import com.enterprise.workflow.entity.WorkflowApproval;
+import com.enterprise.workflow.entity.WorkflowInstance;
+import com.enterprise.workflow.entity.WorkflowStatus;
+import com.enterprise.workflow.entity.WorkflowStep;
+import com.enterprise.workflow.repository.WorkflowApprovalRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * State machine that walks an instance through its workflow's ordered steps.
+ * Steps sharing a stepOrder form a stage whose branches run in parallel; an
+ * approval counts towards the open branch for the approver's role, and once
+ * every branch of the stage has its quorum the instance moves to the next
+ * stage, or is approved after the last one. A user approves at most one branch
+ * per stage. A rejection at any branch rejects the instance, and a change
+ * request parks it until the next approval.
+ *
+ * Decisions only change entities; callers run them inside a transaction, so the
+ * approval, the visits and the instance row are written together at commit.
+ * Every decision updates the instance row, and the version check on that one
+ * update decides between concurrent voters counting the same quorum.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkflowEngine {
+
+    private final WorkflowCatalog catalog;
+    private final WorkflowApprovalRepository approvalRepository;
+    private final StepTrackingService stepTrackingService;
+
+    /**
+     * Whether {@link #decide} handles the instance: it is positioned at a step and
+     * not yet decided. Other instances keep the direct status update.
+     */
+    public boolean isStepped(WorkflowInstance instance) {
+        return instance.getCurrentStep() != null && instance.getStatus() != WorkflowStatus.APPROVED
+                && instance.getStatus() != WorkflowStatus.REJECTED;
+    }
+
+    public List<WorkflowStep> firstStage(Long workflowId) {
+        List<WorkflowStep> steps = loadSteps(List.of(workflowId)).getOrDefault(workflowId, List.of());
+        return steps.isEmpty() ? List.of() : stage(steps, steps.get(0).getStepOrder());
+    }
+
+    // Steps per workflow in stage order, from the catalog's snapshots
+    public Map<Long, List<WorkflowStep>> loadSteps(Collection<Long> workflowIds) {
+        Map<Long, List<WorkflowStep>> steps = new HashMap<>();
+        for (Long workflowId : workflowIds) {
+            WorkflowCatalog.Definition definition = catalog.find(workflowId);
+            if (definition != null && !definition.steps().isEmpty())
+                steps.put(workflowId, definition.toSteps());
+        }
+        return steps;
+    }
+
+    public Map<Long, List<WorkflowApproval>> loadApprovals(Collection<Long> instanceIds) {
+        if (instanceIds.isEmpty())
+            return Map.of();
+        return approvalRepository.findByInstanceIdIn(instanceIds).stream()
+                .collect(Collectors.groupingBy(approval -> approval.getInstance().getId()));
+    }
+
+    /**
+     * Applies one approver's decision to a stepped instance. All checks run
+     * before anything changes: if the decision is not allowed, the instance is
+     * left untouched and the outcome carries the reason. Closing the visits of
+     * a rejected instance is left to the caller so that bulk decisions can close
+     * them together.
+     */
+    public Outcome decide(WorkflowInstance instance, User approver, WorkflowStatus decision, String remarks,
+            List<WorkflowStep> steps, List<WorkflowApproval> approvals) {
+        if (decision != WorkflowStatus.APPROVED && decision != WorkflowStatus.REJECTED
+                && decision != WorkflowStatus.CHANGES_REQUESTED)
+            return Outcome.failed("Unsupported decision: " + decision);
+        Long currentStepId = instance.getCurrentStep().getId();
+        WorkflowStep current = steps.stream()
+                .filter(step -> step.getId().equals(currentStepId))
+                .findFirst()
+                .orElse(null);
+        if (current == null)
+            return Outcome.failed("The instance's current step no longer exists");
+        if (instance.getUser().getId().equals(approver.getId()))
+            return Outcome.failed("You cannot decide your own request.");
+
+        List<WorkflowStep> stage = stage(steps, current.getStepOrder());
+        List<WorkflowStep> branches = stage.stream()
+                .filter(step -> step.getRequiredRole() == approver.getRole())
+                .toList();
+        if (branches.isEmpty()) {
+            return Outcome.failed("Step '" + current.getName() + "' needs approval from "
+                    + stage.stream().map(step -> step.getRequiredRole().name()).distinct()
+                            .collect(Collectors.joining(" and ")));
+        }
+
+        Map<Long, Set<Long>> approvers = new HashMap<>();
+        for (WorkflowApproval approval : approvals) {
+            approvers.computeIfAbsent(approval.getStep().getId(), id -> new HashSet<>())
+                    .add(approval.getApprover().getId());
+        }
+        // One vote per user per stage: branches sharing a role must be approved by different users
+        if (stage.stream().anyMatch(step -> approvers.getOrDefault(step.getId(), Set.of()).contains(approver.getId())))
+            return Outcome.failed("You have already approved this step.");
+        WorkflowStep branch = branches.stream()
+                .filter(step -> !hasQuorum(step, approvers))
+                .findFirst()
+                .orElse(null);
+        if (branch == null)
+            return Outcome.failed("This step already has the approvals it needs.");
+
+        instance.setRemarks(remarks);
+        // Written even when a vote changes no other column, so that it takes part in the version check
+        instance.setUpdatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        if (decision != WorkflowStatus.APPROVED) {
+            instance.setStatus(decision);
+            return Outcome.applied(branch, null);
+        }
+
+        approvalRepository.save(WorkflowApproval.builder()
+                .instance(instance)
+                .step(branch)
+                .approver(approver)
+                .build());
+        approvers.computeIfAbsent(branch.getId(), id -> new HashSet<>()).add(approver.getId());
+        instance.setStatus(WorkflowStatus.PENDING);
+        if (hasQuorum(branch, approvers))
+            stepTrackingService.exitStep(instance, branch);
+        if (!stage.stream().allMatch(step -> hasQuorum(step, approvers)))
+            return Outcome.applied(branch, null);
+
+        List<WorkflowStep> next = steps.stream()
+                .filter(step -> step.getStepOrder() > current.getStepOrder())
+                .findFirst()
+                .map(step -> stage(steps, step.getStepOrder()))
+                .orElse(List.of());
+        if (next.isEmpty()) {
+            instance.setStatus(WorkflowStatus.APPROVED);
+            return Outcome.applied(branch, null);
+        }
+        stepTrackingService.enterSteps(instance, next);
+        instance.setCurrentStep(next.get(0));
+        return Outcome.applied(branch, next.get(0));
+    }
+
+    private static List<WorkflowStep> stage(List<WorkflowStep> steps, Integer stepOrder) {
+        return steps.stream().filter(step -> step.getStepOrder().equals(stepOrder)).toList();
+    }
+
+    private static boolean hasQuorum(WorkflowStep step, Map<Long, Set<Long>> approvers) {
+        return approvers.getOrDefault(step.getId(), Set.of()).size() >= step.getApprovalsRequired();
+    }
+
+    /**
+     * Result of {@link #decide}: either the reason the decision was refused, or the
+     * branch it counted towards and, when it completed a stage, the first step of
+     * the stage the instance moved to.
+     */
+    public record Outcome(String error, WorkflowStep branch, WorkflowStep advancedTo) {
+
+        static Outcome failed(String error) {
+            return new Outcome(error, null, null);
+        }
+
+        static Outcome applied(WorkflowStep branch, WorkflowStep advancedTo) {
+            return new Outcome(null, branch, advancedTo);
+        }
+    }
+}
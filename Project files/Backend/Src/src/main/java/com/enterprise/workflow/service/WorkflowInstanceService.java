@@ -2,29 +2,49 @@ package com.enterprise.workflow.service;
 
 import com.enterprise.workflow.dto.WorkflowInstanceRequest;
 import com.enterprise.workflow.dto.WorkflowInstanceResponse;
+import com.enterprise.workflow.entity.Role;
 import com.enterprise.workflow.entity.User;
+import com.enterprise.workflow.entity.WorkflowApproval;
 import com.enterprise.workflow.entity.Workflow;
 import com.enterprise.workflow.entity.WorkflowInstance;
 import com.enterprise.workflow.entity.WorkflowStatus;
+import com.enterprise.workflow.entity.WorkflowStep;
+import com.enterprise.workflow.event.InstanceSubmitted;
+import com.enterprise.workflow.event.StatusChanged;
+import com.enterprise.workflow.event.TaskAssigned;
+import com.enterprise.workflow.exception.InstanceConflictException;
 import com.enterprise.workflow.repository.UserRepository;
 import com.enterprise.workflow.repository.WorkflowInstanceRepository;
-import com.enterprise.workflow.repository.WorkflowRepository;
-import com.enterprise.workflow.model.Notification;
-import com.enterprise.workflow.repository.NotificationRepository;
 import com.enterprise.workflow.repository.FileAttachmentRepository;
 import com.enterprise.workflow.dto.FileAttachmentResponse;
+import com.enterprise.workflow.dto.BulkActionResult;
+import com.enterprise.workflow.dto.CursorPage;
+import com.enterprise.workflow.dto.WorkflowInstanceRow;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.enterprise.workflow.service.AuditLogService;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,18 +52,60 @@ import java.util.stream.Collectors;
 public class WorkflowInstanceService {
 
         private final WorkflowInstanceRepository instanceRepository;
-        private final WorkflowRepository workflowRepository;
         private final UserRepository userRepository;
-        private final NotificationRepository notificationRepository;
         private final FileAttachmentRepository fileAttachmentRepository;
         private final AuditLogService auditLogService;
+        private final AnalyticsStore analyticsStore;
+        private final AnalyticsService analyticsService;
+        private final StepTrackingService stepTrackingService;
+        private final InstanceSearchIndex searchIndex;
+        private final WorkloadIndex workloadIndex;
+        private final WorkflowEngine workflowEngine;
+        private final WorkflowCatalog workflowCatalog;
+        private final EscalationScheduler escalationScheduler;
+        private final OutboxService outboxService;
+        private final TransactionTemplate transactionTemplate;
+
+        @Value("${instances.page.default-size:50}")
+        private int defaultPageSize;
+
+        @Value("${instances.page.max-size:200}")
+        private int maxPageSize;
+
+        @Value("${instances.search.chunk-size:1000}")
+        private int searchChunkSize;
+
+        @Value("${instances.transition.max-attempts:3}")
+        private int maxTransitionAttempts;
+
+        @Value("${instances.bulk.max-size:500}")
+        private int maxBulkSize;
+
+        @Value("${instances.claim.max-count:20}")
+        private int maxClaimCount;
+
+        @Value("${instances.claim.lease-minutes:30}")
+        private long claimLeaseMinutes;
+
+        @Value("${instances.auto-assign.enabled:true}")
+        private boolean autoAssignEnabled;
 
         public WorkflowInstanceResponse submitWorkflow(WorkflowInstanceRequest request, String username) {
                 User user = userRepository.findByUsername(username)
                                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-                Workflow workflow = workflowRepository.findById(request.getWorkflowId())
-                                .orElseThrow(() -> new RuntimeException("Workflow not found"));
+                WorkflowCatalog.Definition definition = request.getWorkflowId() != null
+                                ? workflowCatalog.find(request.getWorkflowId())
+                                : null;
+                if (definition == null) {
+                        throw new RuntimeException("Workflow not found");
+                }
+                Workflow workflow = definition.toWorkflow();
+
+                // Every parallel branch of the first stage opens at once; currentStep names the first
+                List<WorkflowStep> firstStage = workflowEngine.firstStage(workflow.getId());
+                WorkflowStep firstStep = firstStage.isEmpty() ? null : firstStage.get(0);
+                User assignee = pickAssignee(user, firstStep);
 
                 WorkflowInstance instance = WorkflowInstance.builder()
                                 .workflow(workflow)
@@ -51,26 +113,54 @@ public class WorkflowInstanceService {
                                 .description(request.getDescription())
                                 .priority(request.getPriority())
                                 .dueDate(request.getDueDate())
+                                .currentStep(firstStep)
+                                .assignedTo(assignee)
                                 .build();
 
-                WorkflowInstance savedInstance = instanceRepository.save(instance);
-                auditLogService.log("SUBMIT_WORKFLOW", user,
-                                String.format("Submitted request for workflow: %s (Instance ID: %d)",
-                                                workflow.getTitle(), savedInstance.getId()));
+                // Audit and notifications follow from the outbox event committed with the instance
+                WorkflowInstance savedInstance;
+                try {
+                        savedInstance = transactionTemplate.execute(tx -> {
+                                WorkflowInstance saved = instanceRepository.save(instance);
+                                stepTrackingService.enterSteps(saved, firstStage);
+                                outboxService.publish(new InstanceSubmitted(saved.getId(), user.getFullName(),
+                                                user.getRole().name(), workflow.getTitle(),
+                                                assignee != null ? assignee.getId() : null));
+                                return saved;
+                        });
+                } catch (RuntimeException e) {
+                        if (assignee != null) {
+                                workloadIndex.moved(assignee.getId(), true, null, false);
+                        }
+                        throw e;
+                }
+                escalationScheduler.track(savedInstance);
+                analyticsStore.recordSubmitted(savedInstance);
+                searchIndex.index(savedInstance);
                 return mapToResponse(savedInstance);
         }
 
-        public List<WorkflowInstanceResponse> getMyInstances(String username) {
+        @Transactional(readOnly = true)
+        public CursorPage<WorkflowInstanceResponse> getMyInstances(String username, String cursor, Integer size) {
                 User user = userRepository.findByUsername(username)
                                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-                return instanceRepository.findByUserIdOrderBySubmittedAtDesc(user.getId()).stream()
-                                .map(this::mapToResponse)
-                                .collect(Collectors.toList());
+                Specification<WorkflowInstance> spec = (root, criteriaQuery, cb) -> cb
+                                .equal(root.get("user").get("id"), user.getId());
+                return findPage(spec, cursor, size);
         }
 
-        public List<WorkflowInstanceResponse> getAllInstances(WorkflowStatus status, String owner, LocalDate date,
-                        String query) {
+        @Transactional(readOnly = true)
+        public CursorPage<WorkflowInstanceResponse> getAllInstances(WorkflowStatus status, String owner,
+                        LocalDate date, String query, String cursor, Integer size) {
+                // Text search resolves candidate ids, already in list order and past the cursor, from the
+                // in-memory index instead of LIKE '%x%' scans. A query with no searchable terms filters nothing.
+                KeysetCursor after = KeysetCursor.decode(cursor);
+                List<Long> candidates = query != null
+                                ? searchIndex.search(query, after != null ? after.timestamp() : null,
+                                                after != null ? after.id() : null)
+                                : null;
+
                 Specification<WorkflowInstance> spec = (root, criteriaQuery, cb) -> {
                         List<Predicate> predicates = new ArrayList<>();
 
@@ -89,23 +179,13 @@ public class WorkflowInstanceService {
                                 predicates.add(cb.between(root.get("submittedAt"), startOfDay, endOfDay));
                         }
 
-                        if (query != null && !query.isEmpty()) {
-                                String lcaseQuery = "%" + query.toLowerCase() + "%";
-                                predicates.add(cb.or(
-                                                cb.like(cb.lower(root.get("workflow").get("title")), lcaseQuery),
-                                                cb.like(cb.lower(root.get("description")), lcaseQuery)));
-                        }
-
                         return cb.and(predicates.toArray(new Predicate[0]));
                 };
 
-                return instanceRepository.findAll(spec).stream()
-                                .map(this::mapToResponse)
-                                .collect(Collectors.toList());
-        }
-
-        public List<WorkflowInstanceResponse> getAllInstances() {
-                return getAllInstances(null, null, null, null);
+                if (candidates != null) {
+                        return findCandidatePage(spec, candidates, size);
+                }
+                return findPage(spec, cursor, size);
         }
 
         public WorkflowInstanceResponse updateStatus(Long id, WorkflowStatus status, String remarks,
@@ -119,37 +199,217 @@ public class WorkflowInstanceService {
                 System.out.println("Processing UpdateStatus: InstanceId=" + id + ", Status=" + status + ", Approver="
                                 + approverUsername + ", Role=" + approver.getRole());
                 // 2. Role Check (Simple Manager Check)
-                if (approver.getRole() == com.enterprise.workflow.entity.Role.MANAGER
-                                && instance.getUser().getRole() != com.enterprise.workflow.entity.Role.USER) {
-                        throw new RuntimeException("Managers can only approve workflows for Users.");
+                String roleError = decisionError(approver, instance);
+                if (roleError != null) {
+                        throw new RuntimeException(roleError);
+                }
+                if (workflowEngine.isStepped(instance)) {
+                        return decideStep(id, status, remarks, approver);
                 }
 
-                if (status == WorkflowStatus.APPROVED) {
-                        instance.setStatus(WorkflowStatus.APPROVED);
-                        instance.setRemarks(remarks);
-                } else if (status == WorkflowStatus.CHANGES_REQUESTED) {
-                        instance.setStatus(WorkflowStatus.CHANGES_REQUESTED);
-                        instance.setRemarks(remarks);
-                } else {
-                        // REJECTED
-                        instance.setStatus(status);
-                        instance.setRemarks(remarks);
+                WorkflowStatus previousStatus = instance.getStatus();
+
+                Transition transition = saveTransition(instance,
+                                i -> Arrays.asList(i.getStatus(), i.getRemarks()),
+                                i -> {
+                                        i.setClaimExpiresAt(null);
+                                        if (status == WorkflowStatus.APPROVED) {
+                                                i.setStatus(WorkflowStatus.APPROVED);
+                                                i.setRemarks(remarks);
+                                        } else if (status == WorkflowStatus.CHANGES_REQUESTED) {
+                                                i.setStatus(WorkflowStatus.CHANGES_REQUESTED);
+                                                i.setRemarks(remarks);
+                                        } else {
+                                                // REJECTED
+                                                i.setStatus(status);
+                                                i.setRemarks(remarks);
+                                        }
+                                },
+                                saved -> outboxService.publish(statusChanged(saved, approver,
+                                                String.format("Updated status of Instance ID %d to %s. Remarks: %s",
+                                                                id, status, remarks))));
+                WorkflowInstance savedInstance = transition.instance();
+                if (!transition.applied()) {
+                        return mapToResponse(savedInstance);
                 }
 
-                WorkflowInstance savedInstance = instanceRepository.save(instance);
+                Long assigneeId = assigneeId(savedInstance);
+                workloadIndex.moved(assigneeId, !isCompleted(previousStatus), assigneeId, !isCompleted(status));
+                analyticsStore.recordStatusChange(savedInstance, previousStatus, transition.previousUpdatedAt());
+                searchIndex.index(savedInstance);
+                escalationScheduler.track(savedInstance);
 
-                auditLogService.log("UPDATE_STATUS", approver,
-                                String.format("Updated status of Instance ID %d to %s. Remarks: %s",
-                                                id, status, remarks));
+                return mapToResponse(savedInstance);
+        }
+
+        /**
+         * Records a decision on an instance that is walking its workflow steps. The
+         * approval, visit changes and the instance update commit together, and a
+         * concurrent decision on the same instance makes this one retry from the
+         * fresh state, so quorums are counted exactly.
+         */
+        private WorkflowInstanceResponse decideStep(Long id, WorkflowStatus status, String remarks, User approver) {
+                StepDecision result = executeWithRetry(() -> transactionTemplate.execute(tx -> {
+                        WorkflowInstance instance = instanceRepository.findAllWithOwnerByIdIn(List.of(id)).stream()
+                                        .findFirst()
+                                        .orElseThrow(() -> new RuntimeException("Instance not found"));
+                        if (!workflowEngine.isStepped(instance)) {
+                                throw new InstanceConflictException(
+                                                "Instance " + id + " was decided by another user", mapToResponse(instance));
+                        }
+                        StepDecision decision = new StepDecision(instance, instance.getStatus(),
+                                        instance.getUpdatedAt(), assigneeId(instance));
+
+                        WorkflowEngine.Outcome outcome = workflowEngine.decide(instance, approver, status, remarks,
+                                        workflowEngine.loadSteps(List.of(instance.getWorkflow().getId()))
+                                                        .getOrDefault(instance.getWorkflow().getId(), List.of()),
+                                        workflowEngine.loadApprovals(List.of(id)).getOrDefault(id, List.of()));
+                        if (outcome.error() != null) {
+                                throw new RuntimeException(outcome.error());
+                        }
+                        if (instance.getStatus() == WorkflowStatus.REJECTED) {
+                                stepTrackingService.exitCurrentSteps(List.of(instance));
+                        }
+                        handOver(instance, outcome);
 
-                // Create Notification
-                String message = String.format("Update on '%s': %s",
-                                instance.getWorkflow().getTitle(), instance.getRemarks());
-                notificationRepository.save(new Notification(instance.getUser().getId(), message));
+                        outboxService.publish(statusChanged(instance, approver,
+                                        stepAuditDetail(instance, status, outcome, remarks)));
+                        return decision;
+                }));
 
+                WorkflowInstance savedInstance = result.instance();
+                recordDecided(savedInstance, result);
                 return mapToResponse(savedInstance);
         }
 
+        // An instance that moved to a new stage goes to the least-loaded user with that stage's role
+        private void handOver(WorkflowInstance instance, WorkflowEngine.Outcome outcome) {
+                if (outcome.advancedTo() != null && autoAssignEnabled) {
+                        Long nextAssigneeId = workloadIndex.leastLoaded(outcome.advancedTo().getRequiredRole(),
+                                        instance.getUser().getId());
+                        if (nextAssigneeId != null) {
+                                instance.setAssignedTo(userRepository.getReferenceById(nextAssigneeId));
+                                instance.setClaimExpiresAt(null);
+                        }
+                }
+        }
+
+        // In-memory indexes follow the committed state of a decided instance
+        private void recordDecided(WorkflowInstance instance, StepDecision before) {
+                workloadIndex.moved(before.previousAssigneeId(), !isCompleted(before.previousStatus()),
+                                assigneeId(instance), !isCompleted(instance.getStatus()));
+                analyticsStore.recordStatusChange(instance, before.previousStatus(), before.previousUpdatedAt());
+                searchIndex.index(instance);
+                escalationScheduler.track(instance);
+        }
+
+        private static String stepAuditDetail(WorkflowInstance instance, WorkflowStatus decision,
+                        WorkflowEngine.Outcome outcome, String remarks) {
+                return String.format("Recorded %s at step '%s' of Instance ID %d, now %s%s. Remarks: %s",
+                                decision, outcome.branch().getName(), instance.getId(), instance.getStatus(),
+                                outcome.advancedTo() != null ? " at step '" + outcome.advancedTo().getName() + "'" : "",
+                                remarks);
+        }
+
+        // Carries the remarks of the decision as the owner's notification
+        private static StatusChanged statusChanged(WorkflowInstance instance, User approver, String detail) {
+                return new StatusChanged(instance.getId(), approver.getFullName(), approver.getRole().name(),
+                                instance.getUser().getId(), instance.getWorkflow().getTitle(), instance.getStatus(),
+                                instance.getRemarks(), detail);
+        }
+
+        private record StepDecision(WorkflowInstance instance, WorkflowStatus previousStatus,
+                        LocalDateTime previousUpdatedAt, Long previousAssigneeId) {
+        }
+
+        /**
+         * Applies one status change to many instances under the same role rules as
+         * {@link #updateStatus}. Instances that fail a check are reported and skipped;
+         * the rest are written together in one transaction and flushed as JDBC batches.
+         */
+        public List<BulkActionResult> bulkUpdateStatus(List<Long> ids, WorkflowStatus status, String remarks,
+                        String approverUsername) {
+                checkBulkSize(ids);
+                if (status == null) {
+                        throw new IllegalArgumentException("Target status is required");
+                }
+                User approver = userRepository.findByUsername(approverUsername)
+                                .orElseThrow(() -> new UsernameNotFoundException("Approver not found"));
+
+                Map<Long, StepDecision> before = new HashMap<>();
+                List<WorkflowInstance> changed = new ArrayList<>();
+
+                List<BulkActionResult> results = executeWithRetry(() -> transactionTemplate.execute(tx -> {
+                        before.clear();
+                        changed.clear();
+                        Map<Long, WorkflowInstance> instances = loadForBulk(ids);
+                        // Steps and approvals for every stepped instance in the batch, one query each
+                        List<WorkflowInstance> stepped = instances.values().stream()
+                                        .filter(workflowEngine::isStepped)
+                                        .toList();
+                        Map<Long, List<WorkflowStep>> steps = workflowEngine.loadSteps(stepped.stream()
+                                        .map(instance -> instance.getWorkflow().getId()).collect(Collectors.toSet()));
+                        Map<Long, List<WorkflowApproval>> approvals = workflowEngine
+                                        .loadApprovals(stepped.stream().map(WorkflowInstance::getId).toList());
+
+                        List<BulkActionResult> outcome = new ArrayList<>();
+                        List<WorkflowInstance> newlyCompleted = new ArrayList<>();
+                        List<StatusChanged> events = new ArrayList<>();
+
+                        for (Long id : new LinkedHashSet<>(ids)) {
+                                WorkflowInstance instance = instances.get(id);
+                                if (instance == null) {
+                                        outcome.add(BulkActionResult.failed(id, "Instance not found"));
+                                        continue;
+                                }
+                                String roleError = decisionError(approver, instance);
+                                if (roleError != null) {
+                                        outcome.add(BulkActionResult.failed(id, roleError));
+                                        continue;
+                                }
+                                StepDecision previous = new StepDecision(instance, instance.getStatus(),
+                                                instance.getUpdatedAt(), assigneeId(instance));
+
+                                if (workflowEngine.isStepped(instance)) {
+                                        WorkflowEngine.Outcome decision = workflowEngine.decide(instance, approver, status,
+                                                        remarks,
+                                                        steps.getOrDefault(instance.getWorkflow().getId(), List.of()),
+                                                        approvals.getOrDefault(id, List.of()));
+                                        if (decision.error() != null) {
+                                                outcome.add(BulkActionResult.failed(id, decision.error()));
+                                                continue;
+                                        }
+                                        handOver(instance, decision);
+                                        if (instance.getStatus() == WorkflowStatus.REJECTED) {
+                                                newlyCompleted.add(instance);
+                                        }
+                                        events.add(statusChanged(instance, approver,
+                                                        stepAuditDetail(instance, status, decision, remarks)));
+                                } else {
+                                        instance.setStatus(status);
+                                        instance.setRemarks(remarks);
+                                        instance.setClaimExpiresAt(null);
+                                        events.add(statusChanged(instance, approver, String.format(
+                                                        "Updated status of Instance ID %d to %s. Remarks: %s", id, status,
+                                                        remarks)));
+                                }
+                                before.put(id, previous);
+                                changed.add(instance);
+                                outcome.add(BulkActionResult.ok(id));
+                        }
+
+                        stepTrackingService.exitCurrentSteps(newlyCompleted);
+                        outboxService.publishAll(events);
+                        return outcome;
+                }));
+
+                // Instance updates are flushed in batches at commit, which also stamps updatedAt
+                for (WorkflowInstance instance : changed) {
+                        recordDecided(instance, before.get(instance.getId()));
+                }
+                return results;
+        }
+
         public WorkflowInstanceResponse assignTask(Long id, String assignedToUsername, String assignerUsername) {
                 WorkflowInstance instance = instanceRepository.findById(id)
                                 .orElseThrow(() -> new RuntimeException("Instance not found"));
@@ -170,18 +430,142 @@ public class WorkflowInstanceService {
                 User assignee = userRepository.findByUsername(assignedToUsername)
                                 .orElseThrow(() -> new UsernameNotFoundException("Assignee not found"));
 
-                instance.setAssignedTo(assignee);
-                WorkflowInstance savedInstance = instanceRepository.save(instance);
+                // Set per attempt, so it names the assignee the saved change actually replaced
+                Long[] previousAssigneeId = new Long[1];
+                Transition transition = saveTransition(instance,
+                                i -> Arrays.asList(assigneeId(i)),
+                                i -> {
+                                        previousAssigneeId[0] = assigneeId(i);
+                                        // An explicit assignment replaces any work-queue lease
+                                        i.setAssignedTo(assignee);
+                                        i.setClaimExpiresAt(null);
+                                },
+                                saved -> outboxService.publish(taskAssigned(saved, assigner, assignee)));
+                WorkflowInstance savedInstance = transition.instance();
+                if (!transition.applied()) {
+                        return mapToResponse(savedInstance);
+                }
+                boolean open = !isCompleted(savedInstance.getStatus());
+                workloadIndex.moved(previousAssigneeId[0], open, assignee.getId(), open);
+                recordEdited(savedInstance, transition.previousUpdatedAt());
 
-                auditLogService.log("ASSIGN_TASK", assigner,
-                                String.format("Assigned Instance ID %d to %s", id, assignee.getFullName()));
+                return mapToResponse(savedInstance);
+        }
 
-                // Notification
-                String message = String.format("You have been assigned the task '%s' by %s.",
-                                instance.getWorkflow().getTitle(), assigner.getFullName());
-                notificationRepository.save(new Notification(assignee.getId(), message));
+        private static TaskAssigned taskAssigned(WorkflowInstance instance, User assigner, User assignee) {
+                return new TaskAssigned(instance.getId(), assigner.getFullName(), assigner.getRole().name(),
+                                assignee.getId(), assignee.getFullName(), instance.getWorkflow().getTitle());
+        }
 
-                return mapToResponse(savedInstance);
+        public List<BulkActionResult> bulkAssign(List<Long> ids, String assignedToUsername,
+                        String assignerUsername) {
+                checkBulkSize(ids);
+                User assigner = userRepository.findByUsername(assignerUsername)
+                                .orElseThrow(() -> new UsernameNotFoundException("Assigner not found"));
+                if (assigner.getRole() == com.enterprise.workflow.entity.Role.USER) {
+                        throw new RuntimeException("Only Managers and Admins can assign tasks.");
+                }
+                User assignee = userRepository.findByUsername(assignedToUsername)
+                                .orElseThrow(() -> new UsernameNotFoundException("Assignee not found"));
+
+                Map<Long, LocalDateTime> previousUpdatedAts = new HashMap<>();
+                Map<Long, Long> previousAssigneeIds = new HashMap<>();
+                List<WorkflowInstance> changed = new ArrayList<>();
+                List<BulkActionResult> results = executeWithRetry(() -> transactionTemplate.execute(tx -> {
+                        previousUpdatedAts.clear();
+                        previousAssigneeIds.clear();
+                        changed.clear();
+                        Map<Long, WorkflowInstance> instances = loadForBulk(ids);
+                        List<BulkActionResult> outcome = new ArrayList<>();
+                        List<TaskAssigned> events = new ArrayList<>();
+
+                        for (Long id : new LinkedHashSet<>(ids)) {
+                                WorkflowInstance instance = instances.get(id);
+                                if (instance == null) {
+                                        outcome.add(BulkActionResult.failed(id, "Instance not found"));
+                                        continue;
+                                }
+                                previousUpdatedAts.put(id, instance.getUpdatedAt());
+                                previousAssigneeIds.put(id, assigneeId(instance));
+                                instance.setAssignedTo(assignee);
+                                instance.setClaimExpiresAt(null);
+                                changed.add(instance);
+                                events.add(taskAssigned(instance, assigner, assignee));
+                                outcome.add(BulkActionResult.ok(id));
+                        }
+
+                        outboxService.publishAll(events);
+                        return outcome;
+                }));
+
+                for (WorkflowInstance instance : changed) {
+                        boolean open = !isCompleted(instance.getStatus());
+                        workloadIndex.moved(previousAssigneeIds.get(instance.getId()), open, assignee.getId(), open);
+                        recordEdited(instance, previousUpdatedAts.get(instance.getId()));
+                }
+                return results;
+        }
+
+        /**
+         * Work-queue pull for approvers: assigns up to {@code count} unassigned pending
+         * instances to the caller, highest priority and earliest due date first. Rows
+         * being claimed by someone else at the same moment are skipped, not waited on,
+         * so concurrent approvers get disjoint batches. Each claim is a lease; unless
+         * the instance is decided or explicitly assigned before it runs out, the
+         * instance goes back to the queue.
+         */
+        public List<WorkflowInstanceResponse> claimNext(int count, String username) {
+                if (count <= 0 || count > maxClaimCount) {
+                        throw new IllegalArgumentException("Claim between 1 and " + maxClaimCount + " tasks");
+                }
+                User claimer = userRepository.findByUsername(username)
+                                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+                if (claimer.getRole() == Role.USER) {
+                        throw new RuntimeException("Only Managers and Admins can claim tasks.");
+                }
+                // Same rule as decisionError: managers only decide requests submitted by users
+                Role ownerRole = claimer.getRole() == Role.MANAGER ? Role.USER : null;
+                // and a stepped instance can only be decided by a role its current stage asks for
+                Role stepRole = claimer.getRole();
+
+                List<WorkflowInstance> claimed = transactionTemplate.execute(tx -> {
+                        List<Long> ids = instanceRepository.lockClaimable(ownerRole, stepRole, count);
+                        if (ids.isEmpty()) {
+                                return new ArrayList<WorkflowInstance>();
+                        }
+                        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(claimLeaseMinutes);
+                        Map<Long, WorkflowInstance> instances = loadForBulk(ids);
+                        List<WorkflowInstance> batch = new ArrayList<>();
+                        List<String> auditDetails = new ArrayList<>();
+                        for (Long id : ids) {
+                                WorkflowInstance instance = instances.get(id);
+                                instance.setAssignedTo(claimer);
+                                instance.setClaimExpiresAt(expiresAt);
+                                batch.add(instance);
+                                auditDetails.add(String.format("Claimed Instance ID %d until %s", id, expiresAt));
+                        }
+                        auditLogService.logAll("CLAIM_TASK", claimer, auditDetails);
+                        return batch;
+                });
+
+                claimed.forEach(instance -> workloadIndex.moved(null, false, claimer.getId(), true));
+                Map<Long, List<FileAttachmentResponse>> attachments = loadAttachments(
+                                claimed.stream().map(WorkflowInstance::getId).toList());
+                return claimed.stream()
+                                .map(instance -> mapToResponse(instance,
+                                                attachments.getOrDefault(instance.getId(), new ArrayList<>())))
+                                .collect(Collectors.toList());
+        }
+
+        @Scheduled(initialDelayString = "${instances.claim.sweep-interval-ms:30000}",
+                        fixedDelayString = "${instances.claim.sweep-interval-ms:30000}")
+        public void releaseExpiredClaims() {
+                int released = transactionTemplate
+                                .execute(tx -> instanceRepository.releaseExpiredClaims(LocalDateTime.now()));
+                if (released > 0) {
+                        // The bulk update does not say whose claims lapsed
+                        workloadIndex.reconcile();
+                }
         }
 
         public WorkflowInstanceResponse updateTaskDetails(Long id, java.time.LocalDateTime dueDate,
@@ -191,39 +575,221 @@ public class WorkflowInstanceService {
 
                 // Permission check?
 
-                if (dueDate != null)
-                        instance.setDueDate(dueDate);
-                if (priority != null)
-                        instance.setPriority(priority);
-
-                return mapToResponse(instanceRepository.save(instance));
+                Transition transition = saveTransition(instance,
+                                i -> Arrays.asList(i.getDueDate(), i.getPriority()),
+                                i -> {
+                                        // A new due date gets a new escalation
+                                        if (dueDate != null && !dueDate.equals(i.getDueDate())) {
+                                                i.setDueDate(dueDate);
+                                                i.setEscalatedAt(null);
+                                        }
+                                        if (priority != null)
+                                                i.setPriority(priority);
+                                });
+                if (transition.applied()) {
+                        recordEdited(transition.instance(), transition.previousUpdatedAt());
+                        escalationScheduler.track(transition.instance());
+                }
+                return mapToResponse(transition.instance());
         }
 
-        public List<WorkflowInstanceResponse> getAssignedTasks(String username) {
+        @Transactional(readOnly = true)
+        public CursorPage<WorkflowInstanceResponse> getAssignedTasks(String username, String cursor,
+                        Integer size) {
                 User user = userRepository.findByUsername(username)
                                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-                return instanceRepository.findByAssignedToIdOrderBySubmittedAtDesc(user.getId()).stream()
-                                .map(this::mapToResponse)
-                                .collect(Collectors.toList());
+                Specification<WorkflowInstance> spec = (root, criteriaQuery, cb) -> cb
+                                .equal(root.get("assignedTo").get("id"), user.getId());
+                return findPage(spec, cursor, size);
         }
 
-        private WorkflowInstanceResponse mapToResponse(WorkflowInstance instance) {
-                List<FileAttachmentResponse> attachments = fileAttachmentRepository.findByInstanceId(instance.getId())
-                                .stream()
-                                .map(fa -> FileAttachmentResponse.builder()
-                                                .id(fa.getId())
-                                                .fileName(fa.getFileName())
-                                                .fileType(fa.getFileType())
-                                                .fileSize(fa.getFileSize())
-                                                .uploadedBy(fa.getUploadedBy().getFullName())
-                                                .uploadedAt(fa.getUploadedAt())
-                                                .build())
-                                .collect(Collectors.toList());
+        /**
+         * Applies {@code change} and saves it under optimistic locking. If another
+         * writer committed first, the instance is re-read. When the fields this change
+         * touches (as listed by {@code fields}) already hold the target values, the
+         * change counts as done and nothing is written. When the other writer left
+         * those fields alone, the change is re-applied to the fresh state, up to the
+         * configured attempts. Otherwise the caller gets a conflict carrying the
+         * current state.
+         */
+        private Transition saveTransition(WorkflowInstance instance, Function<WorkflowInstance, List<Object>> fields,
+                        Consumer<WorkflowInstance> change) {
+                return saveTransition(instance, fields, change, saved -> {
+                });
+        }
+
+        // inTransaction runs with each save attempt and commits or rolls back with it
+        private Transition saveTransition(WorkflowInstance instance, Function<WorkflowInstance, List<Object>> fields,
+                        Consumer<WorkflowInstance> change, Consumer<WorkflowInstance> inTransaction) {
+                List<Object> original = fields.apply(instance);
+                change.accept(instance);
+                List<Object> target = fields.apply(instance);
+
+                for (int attempt = 1;; attempt++) {
+                        LocalDateTime baseUpdatedAt = instance.getUpdatedAt();
+                        WorkflowInstance attempted = instance;
+                        try {
+                                return new Transition(transactionTemplate.execute(tx -> {
+                                        WorkflowInstance saved = instanceRepository.save(attempted);
+                                        inTransaction.accept(saved);
+                                        return saved;
+                                }), true, baseUpdatedAt);
+                        } catch (OptimisticLockingFailureException e) {
+                                WorkflowInstance current = instanceRepository.findById(instance.getId())
+                                                .orElseThrow(() -> new RuntimeException("Instance not found"));
+                                List<Object> latest = fields.apply(current);
+                                if (latest.equals(target)) {
+                                        return new Transition(current, false, current.getUpdatedAt());
+                                }
+                                if (!latest.equals(original) || attempt >= maxTransitionAttempts) {
+                                        throw new InstanceConflictException(
+                                                        "Instance " + current.getId() + " was changed by another user",
+                                                        mapToResponse(current));
+                                }
+                                instance = current;
+                                change.accept(instance);
+                        }
+                }
+        }
+
+        // Bulk writes re-read every instance per attempt, so a lost version race just reruns the batch
+        private <T> T executeWithRetry(Supplier<T> work) {
+                for (int attempt = 1;; attempt++) {
+                        try {
+                                return work.get();
+                        } catch (OptimisticLockingFailureException e) {
+                                if (attempt >= maxTransitionAttempts) {
+                                        throw e;
+                                }
+                        }
+                }
+        }
+
+        // previousUpdatedAt is the updatedAt of the state the change was written over
+        private record Transition(WorkflowInstance instance, boolean applied, LocalDateTime previousUpdatedAt) {
+        }
+
+        // updatedAt doubles as the completion time in analytics, so editing a completed
+        // instance moves its recorded completion along with it
+        private void recordEdited(WorkflowInstance instance, LocalDateTime previousUpdatedAt) {
+                if (isCompleted(instance.getStatus())) {
+                        analyticsStore.recordStatusChange(instance, instance.getStatus(), previousUpdatedAt);
+                        analyticsService.liveDataChanged();
+                }
+        }
 
-                System.out.println("Mapping Instance ID " + instance.getId() + " - Found " + attachments.size()
-                                + " attachments");
+        /**
+         * Automatic assignment on submit: the least-loaded user holding the first
+         * step's required role, other than the submitter. Managers are only picked
+         * for requests they are allowed to decide (see decisionError).
+         */
+        private User pickAssignee(User submitter, WorkflowStep step) {
+                if (!autoAssignEnabled || step == null || step.getRequiredRole() == null) {
+                        return null;
+                }
+                if (step.getRequiredRole() == Role.MANAGER && submitter.getRole() != Role.USER) {
+                        return null;
+                }
+                Long assigneeId = workloadIndex.pickAssignee(step.getRequiredRole(), submitter.getId());
+                if (assigneeId == null) {
+                        return null;
+                }
+                User assignee = userRepository.findById(assigneeId).orElse(null);
+                if (assignee == null) {
+                        // Deleted since the roster was loaded
+                        workloadIndex.userRemoved(assigneeId);
+                }
+                return assignee;
+        }
+
+        private static Long assigneeId(WorkflowInstance instance) {
+                return instance.getAssignedTo() != null ? instance.getAssignedTo().getId() : null;
+        }
 
+        private void checkBulkSize(List<Long> ids) {
+                if (ids == null || ids.isEmpty()) {
+                        throw new IllegalArgumentException("At least one instance id is required");
+                }
+                if (ids.size() > maxBulkSize) {
+                        throw new IllegalArgumentException("At most " + maxBulkSize + " instances per bulk request");
+                }
+        }
+
+        private Map<Long, WorkflowInstance> loadForBulk(List<Long> ids) {
+                return instanceRepository.findAllWithOwnerByIdIn(ids).stream()
+                                .collect(Collectors.toMap(WorkflowInstance::getId, instance -> instance));
+        }
+
+        private static String decisionError(User approver, WorkflowInstance instance) {
+                if (approver.getRole() == com.enterprise.workflow.entity.Role.MANAGER
+                                && instance.getUser().getRole() != com.enterprise.workflow.entity.Role.USER) {
+                        return "Managers can only approve workflows for Users.";
+                }
+                return null;
+        }
+
+        // Keyset paging: fetch one row past the page to learn whether another page exists
+        private CursorPage<WorkflowInstanceResponse> findPage(Specification<WorkflowInstance> spec, String cursor,
+                        Integer size) {
+                int pageSize = pageSize(size);
+                KeysetCursor after = KeysetCursor.decode(cursor);
+
+                return toPage(instanceRepository.findPage(spec,
+                                after != null ? after.timestamp() : null,
+                                after != null ? after.id() : null,
+                                pageSize + 1), pageSize);
+        }
+
+        // Candidates are in list order and past the cursor, so each chunk of ids continues where the
+        // previous one stopped; the other filters decide how many chunks it takes to fill the page
+        private CursorPage<WorkflowInstanceResponse> findCandidatePage(Specification<WorkflowInstance> spec,
+                        List<Long> candidates, Integer size) {
+                int pageSize = pageSize(size);
+                List<WorkflowInstanceRow> rows = new ArrayList<>();
+                for (int from = 0; from < candidates.size() && rows.size() <= pageSize; from += searchChunkSize) {
+                        List<Long> chunk = candidates.subList(from, Math.min(from + searchChunkSize, candidates.size()));
+                        rows.addAll(instanceRepository.findPage(spec.and((root, criteriaQuery, cb) -> root.get("id")
+                                        .in(chunk)), null, null, pageSize + 1 - rows.size()));
+                }
+                return toPage(rows, pageSize);
+        }
+
+        private int pageSize(Integer size) {
+                return size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        }
+
+        // rows holds up to one row past the page, which tells whether another page exists
+        private CursorPage<WorkflowInstanceResponse> toPage(List<WorkflowInstanceRow> rows, int pageSize) {
+                String nextCursor = null;
+                if (rows.size() > pageSize) {
+                        rows = rows.subList(0, pageSize);
+                        WorkflowInstanceRow last = rows.get(pageSize - 1);
+                        nextCursor = new KeysetCursor(last.submittedAt(), last.id()).encode();
+                }
+
+                Map<Long, List<FileAttachmentResponse>> attachments = loadAttachments(
+                                rows.stream().map(WorkflowInstanceRow::id).toList());
+                return CursorPage.<WorkflowInstanceResponse>builder()
+                                .items(rows.stream()
+                                                .map(row -> mapToResponse(row,
+                                                                attachments.getOrDefault(row.id(), new ArrayList<>())))
+                                                .collect(Collectors.toList()))
+                                .nextCursor(nextCursor)
+                                .build();
+        }
+
+        private static boolean isCompleted(WorkflowStatus status) {
+                return status == WorkflowStatus.APPROVED || status == WorkflowStatus.REJECTED;
+        }
+
+        private WorkflowInstanceResponse mapToResponse(WorkflowInstance instance) {
+                return mapToResponse(instance, loadAttachments(List.of(instance.getId()))
+                                .getOrDefault(instance.getId(), new ArrayList<>()));
+        }
+
+        private WorkflowInstanceResponse mapToResponse(WorkflowInstance instance,
+                        List<FileAttachmentResponse> attachments) {
                 return WorkflowInstanceResponse.builder()
                                 .id(instance.getId())
                                 .workflowTitle(instance.getWorkflow().getTitle())
@@ -243,4 +809,40 @@ public class WorkflowInstanceService {
                                 .attachments(attachments)
                                 .build();
         }
+
+        private WorkflowInstanceResponse mapToResponse(WorkflowInstanceRow row,
+                        List<FileAttachmentResponse> attachments) {
+                return WorkflowInstanceResponse.builder()
+                                .id(row.id())
+                                .workflowTitle(row.workflowTitle())
+                                .applicantName(row.applicantName())
+                                .status(row.status())
+                                .remarks(row.remarks())
+                                .description(row.description())
+                                .submittedAt(row.submittedAt())
+                                .updatedAt(row.updatedAt())
+                                .assignedToName(row.assignedToName())
+                                .priority(row.priority())
+                                .dueDate(row.dueDate())
+                                .currentStepName(row.currentStepName())
+                                .attachments(attachments)
+                                .build();
+        }
+
+        // One attachment query for a whole page instead of one per instance
+        private Map<Long, List<FileAttachmentResponse>> loadAttachments(List<Long> instanceIds) {
+                if (instanceIds.isEmpty())
+                        return Map.of();
+
+                return fileAttachmentRepository.findByInstanceIdIn(instanceIds).stream()
+                                .collect(Collectors.groupingBy(fa -> fa.getInstance().getId(),
+                                                Collectors.mapping(fa -> FileAttachmentResponse.builder()
+                                                                .id(fa.getId())
+                                                                .fileName(fa.getFileName())
+                                                                .fileType(fa.getFileType())
+                                                                .fileSize(fa.getFileSize())
+                                                                .uploadedBy(fa.getUploadedBy().getFullName())
+                                                                .uploadedAt(fa.getUploadedAt())
+                                                                .build(), Collectors.toList())));
+        }
 }
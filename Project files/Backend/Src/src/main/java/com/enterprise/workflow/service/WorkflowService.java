@@ -4,12 +4,15 @@ import com.enterprise.workflow.dto.WorkflowRequest;
 import com.enterprise.workflow.dto.WorkflowResponse;
 import com.enterprise.workflow.entity.User;
 import com.enterprise.workflow.entity.Workflow;
+import com.enterprise.workflow.entity.WorkflowStep;
 import com.enterprise.workflow.repository.UserRepository;
 import com.enterprise.workflow.repository.WorkflowRepository;
+import com.enterprise.workflow.repository.WorkflowStepRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,6 +22,8 @@ public class WorkflowService {
 
     private final WorkflowRepository workflowRepository;
     private final UserRepository userRepository;
+    private final WorkflowStepRepository stepRepository;
+    private final WorkflowCatalog catalog;
 
     public WorkflowResponse createWorkflow(WorkflowRequest request, String username) {
         User creator = userRepository.findByUsername(username)
@@ -29,24 +34,83 @@ public class WorkflowService {
                 .description(request.getDescription())
                 .createdBy(creator)
                 .build();
+        workflow.setSteps(buildSteps(workflow, request.getSteps()));
 
         Workflow saved = workflowRepository.save(workflow);
-        return mapToResponse(saved);
+        return mapToResponse(catalog.refresh(saved.getId()));
     }
 
     public List<WorkflowResponse> getAllWorkflows() {
-        return workflowRepository.findAll().stream()
+        return catalog.all().stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
-    private WorkflowResponse mapToResponse(Workflow workflow) {
+    // Appends a step; without a stepOrder it becomes a new last stage
+    public WorkflowResponse addStep(Long workflowId, WorkflowRequest.StepDefinition definition) {
+        Workflow workflow = workflowRepository.findById(workflowId)
+                .orElseThrow(() -> new RuntimeException("Workflow not found"));
+        int lastOrder = stepRepository.findByWorkflowIdIn(List.of(workflowId)).stream()
+                .mapToInt(WorkflowStep::getStepOrder)
+                .max()
+                .orElse(0);
+        WorkflowStep step = WorkflowStep.builder().workflow(workflow).build();
+        applyDefinition(step, definition, lastOrder + 1);
+        stepRepository.save(step);
+        return mapToResponse(catalog.refresh(workflowId));
+    }
+
+    // Edits a step in place, so instances already at or past it keep their references
+    public WorkflowResponse updateStep(Long workflowId, Long stepId, WorkflowRequest.StepDefinition definition) {
+        WorkflowStep step = stepRepository.findById(stepId)
+                .filter(existing -> existing.getWorkflow().getId().equals(workflowId))
+                .orElseThrow(() -> new RuntimeException("Step not found"));
+        applyDefinition(step, definition, step.getStepOrder());
+        stepRepository.save(step);
+        return mapToResponse(catalog.refresh(workflowId));
+    }
+
+    private List<WorkflowStep> buildSteps(Workflow workflow, List<WorkflowRequest.StepDefinition> definitions) {
+        List<WorkflowStep> steps = new ArrayList<>();
+        if (definitions == null)
+            return steps;
+        for (int i = 0; i < definitions.size(); i++) {
+            WorkflowStep step = WorkflowStep.builder().workflow(workflow).build();
+            applyDefinition(step, definitions.get(i), i + 1);
+            steps.add(step);
+        }
+        return steps;
+    }
+
+    private void applyDefinition(WorkflowStep step, WorkflowRequest.StepDefinition definition, int defaultOrder) {
+        if (definition == null || definition.getName() == null || definition.getName().isBlank()
+                || definition.getRequiredRole() == null)
+            throw new IllegalArgumentException("Each step needs a name and a required role");
+        int approvalsRequired = definition.getApprovalsRequired() != null ? definition.getApprovalsRequired() : 1;
+        if (approvalsRequired < 1)
+            throw new IllegalArgumentException("Step '" + definition.getName() + "' needs at least one approval");
+        step.setName(definition.getName());
+        step.setRequiredRole(definition.getRequiredRole());
+        step.setStepOrder(definition.getStepOrder() != null ? definition.getStepOrder() : defaultOrder);
+        step.setApprovalsRequired(approvalsRequired);
+    }
+
+    private WorkflowResponse mapToResponse(WorkflowCatalog.Definition definition) {
         return WorkflowResponse.builder()
-                .id(workflow.getId())
-                .title(workflow.getTitle())
-                .description(workflow.getDescription())
-                .createdBy(workflow.getCreatedBy().getFullName())
-                .createdAt(workflow.getCreatedAt())
+                .id(definition.id())
+                .title(definition.title())
+                .description(definition.description())
+                .createdBy(definition.createdBy())
+                .createdAt(definition.createdAt())
+                .steps(definition.steps().stream()
+                        .map(step -> WorkflowResponse.StepResponse.builder()
+                                .id(step.id())
+                                .name(step.name())
+                                .requiredRole(step.requiredRole())
+                                .stepOrder(step.stepOrder())
+                                .approvalsRequired(step.approvalsRequired())
+                                .build())
+                        .collect(Collectors.toList()))
                 .build();
     }
 }
@@ -0,0 +1,153 @@
+package com.enterprise.workflow.service;
+
+import com.enterprise.workflow.entity.Role;
+import com.enterprise.workflow.entity.User;
+import com.enterprise.workflow.repository.UserRepository;
+import com.enterprise.workflow.repository.WorkflowInstanceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open-task counts per assignee plus the user roster by role, kept in memory so
+ * that automatic assignment can pick the least-loaded candidate without a
+ * COUNT query. Transitions adjust the counts as they happen; a periodic
+ * reconcile reloads both from the database, which bounds any drift (missed
+ * updates, claims released in bulk) to the reconcile interval.
+ */
+@Component
+@RequiredArgsConstructor
+public class WorkloadIndex {
+
+    private final UserRepository userRepository;
+    private final WorkflowInstanceRepository instanceRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, AtomicInteger> openTasks = new ConcurrentHashMap<>();
+    // Immutable id lists, replaced whenever a user is added, changes role or is removed
+    private final Map<Role, List<Long>> roster = new ConcurrentHashMap<>();
+    private final AtomicInteger rotation = new AtomicInteger();
+
+    // After startup runners, so users seeded on a fresh database are in the roster
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${instances.auto-assign.reconcile-interval-ms:300000}",
+            fixedDelayString = "${instances.auto-assign.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            Map<Role, List<Long>> users = new EnumMap<>(Role.class);
+            for (UserRepository.UserRole user : userRepository.findAllRoles()) {
+                users.computeIfAbsent(user.getRole(), role -> new ArrayList<>()).add(user.getId());
+            }
+            Map<Long, Long> counts = new HashMap<>();
+            for (WorkflowInstanceRepository.AssigneeCount row : instanceRepository.countOpenByAssignee()) {
+                counts.put(row.getUserId(), row.getTotal());
+            }
+
+            Set<Long> known = new HashSet<>();
+            users.forEach((role, ids) -> {
+                Collections.sort(ids);
+                roster.put(role, List.copyOf(ids));
+                known.addAll(ids);
+            });
+            roster.keySet().retainAll(users.keySet());
+            openTasks.keySet().retainAll(known);
+            for (Long id : known) {
+                counter(id).set(counts.getOrDefault(id, 0L).intValue());
+            }
+        });
+        System.out.println("Workload index reconciled: " + openTasks.size() + " users");
+    }
+
+    /**
+     * Picks the user with the fewest open tasks among those holding {@code role},
+     * skipping {@code excludedUserId}. Ties are broken round-robin so equally
+     * loaded users share new work. The pick is counted immediately so concurrent
+     * callers spread out; callers whose assignment then fails must undo it with
+     * {@link #moved}. Returns null when nobody qualifies.
+     */
+    public Long pickAssignee(Role role, Long excludedUserId) {
+        Long best = leastLoaded(role, excludedUserId);
+        if (best != null)
+            counter(best).incrementAndGet();
+        return best;
+    }
+
+    /**
+     * Same choice as {@link #pickAssignee} without counting it, for callers that
+     * report the assignment through {@link #moved} once it has committed.
+     */
+    public Long leastLoaded(Role role, Long excludedUserId) {
+        return leastLoaded(role, excludedUserId != null ? Set.of(excludedUserId) : Set.of());
+    }
+
+    public Long leastLoaded(Role role, Set<Long> excludedUserIds) {
+        List<Long> candidates = roster.getOrDefault(role, List.of());
+        int size = candidates.size();
+        if (size == 0)
+            return null;
+
+        int offset = Math.floorMod(rotation.getAndIncrement(), size);
+        Long best = null;
+        int bestLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Long id = candidates.get((offset + i) % size);
+            if (excludedUserIds.contains(id))
+                continue;
+            int load = counter(id).get();
+            if (load < bestLoad) {
+                best = id;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Records that an instance moved from one assignee/open state to another.
+     * Either assignee may be null; a task counts against its assignee only while
+     * it is open.
+     */
+    public void moved(Long fromUserId, boolean wasOpen, Long toUserId, boolean isOpen) {
+        if (Objects.equals(fromUserId, toUserId) && wasOpen == isOpen)
+            return;
+        if (fromUserId != null && wasOpen)
+            counter(fromUserId).updateAndGet(count -> Math.max(0, count - 1));
+        if (toUserId != null && isOpen)
+            counter(toUserId).incrementAndGet();
+    }
+
+    public synchronized void userSaved(User user) {
+        removeFromRoster(user.getId());
+        List<Long> ids = new ArrayList<>(roster.getOrDefault(user.getRole(), List.of()));
+        ids.add(user.getId());
+        Collections.sort(ids);
+        roster.put(user.getRole(), List.copyOf(ids));
+        counter(user.getId());
+    }
+
+    public synchronized void userRemoved(Long userId) {
+        removeFromRoster(userId);
+        openTasks.remove(userId);
+    }
+
+    private void removeFromRoster(Long userId) {
+        roster.replaceAll((role, ids) -> ids.contains(userId)
+                ? ids.stream().filter(id -> !id.equals(userId)).toList()
+                : ids);
+    }
+
+    private AtomicInteger counter(Long userId) {
+        return openTasks.computeIfAbsent(userId, id -> new AtomicInteger());
+    }
+}
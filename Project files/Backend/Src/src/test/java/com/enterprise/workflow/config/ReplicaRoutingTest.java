@@ -0,0 +1,158 @@
+package com.enterprise.workflow.config;
+
+import com.enterprise.workflow.repository.WorkflowRepository;
+import com.jayway.jsonpath.JsonPath;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Routing between the primary and one read replica, both embedded databases.
+ * The replica is a copy of the primary taken before each test and never
+ * updated afterwards, so it behaves like a replica that has not caught up:
+ * rows written during a test are only visible on the primary.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replicas[0].url=jdbc:h2:mem:replica-${random.uuid};MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "app.datasource.replicas[0].username=sa",
+        "app.datasource.replicas[0].password=" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private HikariDataSource primaryDataSource;
+    @Autowired
+    private ReplicaProperties replicaProperties;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    private long readYourWritesMs;
+
+    @BeforeEach
+    void copyPrimaryToReplica() throws Exception {
+        readYourWritesMs = replicaProperties.getReadYourWritesMs();
+        Path script = Files.createTempFile("replica", ".sql");
+        try {
+            new JdbcTemplate(primaryDataSource).execute("SCRIPT TO '" + script + "'");
+            ReplicaProperties.Replica replica = replicaProperties.getReplicas().get(0);
+            try (Connection connection = DriverManager.getConnection(replica.getUrl(), replica.getUsername(),
+                    replica.getPassword()); Statement statement = connection.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+                statement.execute("RUNSCRIPT FROM '" + script + "'");
+            }
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+
+    @AfterEach
+    void restore() {
+        ReplicaRoutingDataSource.clear();
+        replicaProperties.setReadYourWritesMs(readYourWritesMs);
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaOnlyWhenAllowed() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        assertThat(urlIn(readOnly)).isEqualTo(primaryDatabase());
+
+        ReplicaRoutingDataSource.allowReplica();
+        assertThat(urlIn(readOnly)).isEqualTo(replicaDatabase());
+        assertThat(urlIn(readWrite)).isEqualTo(primaryDatabase());
+        assertThat(connectionUrl()).as("outside a transaction").isEqualTo(primaryDatabase());
+
+        ReplicaRoutingDataSource.clear();
+        assertThat(urlIn(readOnly)).isEqualTo(primaryDatabase());
+    }
+
+    @Test
+    void writerReadsFromThePrimaryUntilTheWindowPasses() throws Exception {
+        Long workflowId = workflowRepository.findAll().get(0).getId();
+        String submitted = mockMvc.perform(post("/api/instances")
+                .with(user("user").roles("USER"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"workflowId\":" + workflowId + ",\"description\":\"Replica routing\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Number id = JsonPath.read(submitted, "$.id");
+
+        // The writer is pinned to the primary and sees the new instance at once
+        assertThat(myInstanceIds("user")).contains(id);
+
+        // Other users' reads (and the instance lists they serve) go to the replica, which has not caught up
+        assertThat(allInstanceIds("manager")).doesNotContain(id);
+
+        // Once the window has passed the writer's reads go to the replica too
+        replicaProperties.setReadYourWritesMs(0);
+        Thread.sleep(5);
+        assertThat(myInstanceIds("user")).doesNotContain(id);
+    }
+
+    private List<Number> myInstanceIds(String username) throws Exception {
+        return JsonPath.read(mockMvc.perform(get("/api/instances/my").with(user(username).roles("USER")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), "$[*].id");
+    }
+
+    private List<Number> allInstanceIds(String username) throws Exception {
+        return JsonPath.read(mockMvc.perform(get("/api/instances/all").with(user(username).roles("MANAGER")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), "$[*].id");
+    }
+
+    private String urlIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> connectionUrl());
+    }
+
+    // H2 reports the URL without its settings
+    private String connectionUrl() {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> database(connection.getMetaData()
+                .getURL()));
+    }
+
+    private String primaryDatabase() {
+        return database(primaryDataSource.getJdbcUrl());
+    }
+
+    private String replicaDatabase() {
+        return database(replicaProperties.getReplicas().get(0).getUrl());
+    }
+
+    private static String database(String url) {
+        return url.split(";")[0];
+    }
+}
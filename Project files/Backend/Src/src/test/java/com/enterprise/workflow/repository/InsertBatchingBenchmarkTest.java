@@ -0,0 +1,107 @@
+package com.enterprise.workflow.repository;
+
+import com.enterprise.workflow.entity.AuditLog;
+import com.enterprise.workflow.model.Notification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Timing harness for insert batching on the high-volume tables: saveAll of a
+ * block of audit entries and of notifications in one transaction, with the
+ * configured JDBC batch size and with batching turned off for the session,
+ * which sends one INSERT per row the way IDENTITY keys forced. Runs against the
+ * test database (embedded H2) unless pointed elsewhere, and only on request:
+ *
+ * mvn test -Dtest=InsertBatchingBenchmarkTest -Dbenchmarks=true [-Dbenchmarks.rows=20000]
+ *
+ * In memory the per-row time barely moves; what batching removes is the round
+ * trip per row, which dominates against a networked database.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class InsertBatchingBenchmarkTest {
+
+    private static final int WARM_RUNS = 4;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    @Autowired
+    private NotificationRepository notificationRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    @Test
+    void compareBatchedAndRowByRowInserts() {
+        int rows = Integer.parseInt(System.getProperty("benchmarks.rows", "20000"));
+        run("audit_logs", auditLogRepository, rows, i -> AuditLog.builder().action("BENCHMARK").actorName("bench")
+                .actorRole("ADMIN").details("entry " + i).timestamp(LocalDateTime.now()).build());
+        run("notifications", notificationRepository, rows, i -> new Notification(1L, "Benchmark notification " + i));
+    }
+
+    private <T> void run(String table, JpaRepository<T, Long> repository, int rows, IntFunction<T> row) {
+        long[] batchedMillis = new long[WARM_RUNS];
+        long[] rowByRowMillis = new long[WARM_RUNS];
+        long batchedStatements = 0;
+        long rowByRowStatements = 0;
+        for (int run = 0; run < WARM_RUNS; run++) {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+            statistics.clear();
+            batchedMillis[run] = insert(repository, rows, row, null);
+            batchedStatements = statistics.getPrepareStatementCount();
+
+            statistics.clear();
+            rowByRowMillis[run] = insert(repository, rows, row, 1);
+            rowByRowStatements = statistics.getPrepareStatementCount();
+        }
+
+        System.out.printf("%s rows=%d batched=%s ms (%d statements) row-by-row=%s ms (%d statements)%n", table, rows,
+                Arrays.toString(batchedMillis), batchedStatements, Arrays.toString(rowByRowMillis),
+                rowByRowStatements);
+        // One INSERT per batch plus a sequence call per block of ids, against one INSERT per row
+        assertThat(batchedStatements).isLessThanOrEqualTo(2L * rows / batchSize + 2);
+        assertThat(rowByRowStatements).isGreaterThanOrEqualTo(rows);
+    }
+
+    // jdbcBatchSize overrides the configured batch size for this transaction's session when set
+    private <T> long insert(JpaRepository<T, Long> repository, int rows, IntFunction<T> row, Integer jdbcBatchSize) {
+        List<T> entities = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++)
+            entities.add(row.apply(i));
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (jdbcBatchSize != null)
+                entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            repository.saveAll(entities);
+        });
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,374 @@
+package com.enterprise.workflow.repository;
+
+import com.enterprise.workflow.entity.AuditLog;
+import com.enterprise.workflow.entity.FileAttachment;
+import com.enterprise.workflow.entity.Priority;
+import com.enterprise.workflow.entity.Role;
+import com.enterprise.workflow.entity.User;
+import com.enterprise.workflow.entity.Workflow;
+import com.enterprise.workflow.entity.WorkflowInstance;
+import com.enterprise.workflow.entity.WorkflowStatus;
+import com.enterprise.workflow.entity.WorkflowStep;
+import com.enterprise.workflow.entity.WorkflowStepVisit;
+import com.enterprise.workflow.model.Notification;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the hot repository queries are answered from their indexes. Each
+ * query runs through its repository method against seeded data while the
+ * statements it sends are captured, then is replayed with EXPLAIN and the same
+ * parameters. A full table scan fails the test on any database; on MySQL an
+ * ordered query that needs a filesort fails it too. H2 does not report whether
+ * a descending ORDER BY is read in index order, so the sort checks only run
+ * against MySQL:
+ *
+ * mvn test -Dtest=QueryPlanTest -Dspring.datasource.url=jdbc:mysql://... -Dspring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver
+ *     -Dspring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(QueryPlanTest.CaptureConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final int USERS = 200;
+    private static final int INSTANCES = 5000;
+    private static final int AUDIT_ENTRIES = 5000;
+    private static final String[] ACTIONS = { "LOGIN", "SUBMIT_WORKFLOW", "UPDATE_STATUS", "ASSIGN_TASK",
+            "FILE_UPLOAD", "CLAIM_TASK", "ESCALATE", "UPDATE_DETAILS" };
+
+    private static final ThreadLocal<List<Captured>> CAPTURED = new ThreadLocal<>();
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private WorkflowRepository workflowRepository;
+    @Autowired
+    private WorkflowStepRepository stepRepository;
+    @Autowired
+    private WorkflowInstanceRepository instanceRepository;
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    @Autowired
+    private NotificationRepository notificationRepository;
+    @Autowired
+    private FileAttachmentRepository attachmentRepository;
+    @Autowired
+    private WorkflowStepVisitRepository stepVisitRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Long> instanceIds = new ArrayList<>();
+    private LocalDateTime now;
+
+    @BeforeAll
+    void seed() {
+        now = LocalDateTime.now();
+        Random random = new Random(7);
+        transactionTemplate.executeWithoutResult(status -> {
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < USERS; i++) {
+                users.add(User.builder().username("plan-user-" + i).password("x").fullName("Plan User " + i)
+                        .role(i % 10 == 0 ? Role.MANAGER : Role.USER).build());
+            }
+            userRepository.saveAll(users).forEach(user -> userIds.add(user.getId()));
+
+            List<Workflow> workflows = workflowRepository.findAll();
+            List<WorkflowStep> steps = stepRepository.findAllOrdered();
+            WorkflowStatus[] statuses = WorkflowStatus.values();
+            Priority[] priorities = { Priority.HIGH, Priority.MEDIUM, Priority.LOW, null };
+            List<WorkflowInstance> instances = new ArrayList<>();
+            for (int i = 0; i < INSTANCES; i++) {
+                WorkflowStatus instanceStatus = statuses[random.nextInt(statuses.length)];
+                LocalDateTime submittedAt = now.minusMinutes(random.nextInt(90 * 24 * 60));
+                instances.add(WorkflowInstance.builder()
+                        .workflow(workflows.get(random.nextInt(workflows.size())))
+                        .user(users.get(random.nextInt(USERS)))
+                        .assignedTo(random.nextInt(4) == 0 ? null : users.get(random.nextInt(USERS)))
+                        .status(instanceStatus)
+                        .description("Seeded instance " + i)
+                        .submittedAt(submittedAt)
+                        .updatedAt(instanceStatus == WorkflowStatus.PENDING ? null : submittedAt.plusHours(6))
+                        .priority(priorities[random.nextInt(priorities.length)])
+                        .dueDate(random.nextBoolean() ? submittedAt.plusDays(3) : null)
+                        .claimExpiresAt(random.nextInt(50) == 0 ? now.plusMinutes(30) : null)
+                        .currentStep(steps.isEmpty() ? null : steps.get(random.nextInt(steps.size())))
+                        .build());
+            }
+            instanceRepository.saveAll(instances).forEach(instance -> instanceIds.add(instance.getId()));
+
+            List<AuditLog> entries = new ArrayList<>();
+            for (int i = 0; i < AUDIT_ENTRIES; i++) {
+                entries.add(AuditLog.builder().action(ACTIONS[random.nextInt(ACTIONS.length)])
+                        .actorName("Plan User " + random.nextInt(USERS)).actorRole("USER").details("entry " + i)
+                        .timestamp(now.minusMinutes(random.nextInt(90 * 24 * 60))).build());
+            }
+            auditLogRepository.saveAll(entries);
+
+            List<Notification> notifications = new ArrayList<>();
+            List<FileAttachment> attachments = new ArrayList<>();
+            List<WorkflowStepVisit> visits = new ArrayList<>();
+            for (int i = 0; i < INSTANCES; i++) {
+                WorkflowInstance instance = instances.get(i);
+                notifications.add(new Notification(instance.getUser().getId(), "Seeded notification " + i));
+                if (i % 3 == 0) {
+                    attachments.add(FileAttachment.builder().fileName("file-" + i + ".pdf").fileType("application/pdf")
+                            .filePath("file-" + i + ".pdf").fileSize(1024L).instance(instance)
+                            .uploadedBy(instance.getUser()).uploadedAt(instance.getSubmittedAt()).build());
+                }
+                if (instance.getCurrentStep() != null) {
+                    visits.add(WorkflowStepVisit.builder().instance(instance).step(instance.getCurrentStep())
+                            .enteredAt(instance.getSubmittedAt())
+                            .exitedAt(instance.getStatus() == WorkflowStatus.PENDING ? null : instance.getUpdatedAt())
+                            .build());
+                }
+            }
+            notificationRepository.saveAll(notifications);
+            attachmentRepository.saveAll(attachments);
+            stepVisitRepository.saveAll(visits);
+        });
+
+        // Fresh statistics, so the planner sees the seeded distribution
+        if (isMySql()) {
+            jdbcTemplate.execute("ANALYZE TABLE workflow_instances, audit_logs, notifications, file_attachments,"
+                    + " workflow_step_visits, users");
+        } else {
+            jdbcTemplate.execute("ANALYZE");
+        }
+    }
+
+    @Test
+    void instancePagesUseTheirIndexes() {
+        Long userId = userIds.get(3);
+        assertIndexed(true, () -> instanceRepository.findPage(
+                (root, query, cb) -> cb.equal(root.get("user").get("id"), userId), null, null, 51));
+        assertIndexed(true, () -> instanceRepository.findPage(
+                (root, query, cb) -> cb.equal(root.get("user").get("id"), userId), now.minusDays(30), 1L, 51));
+        assertIndexed(true, () -> instanceRepository.findPage(
+                (root, query, cb) -> cb.equal(root.get("assignedTo").get("id"), userId), null, null, 51));
+        assertIndexed(true, () -> instanceRepository.findPage(
+                (root, query, cb) -> cb.equal(root.get("status"), WorkflowStatus.CHANGES_REQUESTED), null, null, 51));
+        assertIndexed(true, () -> instanceRepository.findPage(byIds(instanceIds.subList(0, 20)), null, null, 51));
+    }
+
+    @Test
+    void auditPagesUseTheirIndexes() {
+        LocalDateTime from = now.minusDays(2);
+        assertIndexed(true, () -> auditLogRepository.findPage(null, null, "ESCALATE", null, null, null, 101));
+        assertIndexed(true, () -> auditLogRepository.findPage(null, null, null, "Plan User 7", now.minusDays(1),
+                Long.MAX_VALUE, 101));
+        assertIndexed(true, () -> auditLogRepository.findPage(from, now, null, null, null, null, 101));
+    }
+
+    @Test
+    void perUserAndPerInstanceLookupsUseTheirIndexes() {
+        Long userId = userIds.get(5);
+        List<Long> page = instanceIds.subList(100, 150);
+        assertIndexed(true, () -> notificationRepository.findByUserIdOrderByCreatedAtDesc(userId));
+        assertIndexed(false, () -> notificationRepository.findByUserIdAndIsReadFalse(userId));
+        assertIndexed(false, () -> attachmentRepository.findByInstanceIdIn(page));
+        assertIndexed(false, () -> stepVisitRepository.findOpenByInstanceIdIn(page));
+        assertIndexed(false, () -> stepVisitRepository.findOpenByInstanceIdAndStepId(instanceIds.get(10), 1L));
+        assertIndexed(false, () -> {
+            try (var rows = instanceRepository.streamSearchDocumentsByUserId(userId)) {
+                rows.forEach(row -> { });
+            }
+        });
+    }
+
+    @Test
+    void queueAndRollupQueriesUseTheirIndexes() {
+        assertIndexed(true, () -> instanceRepository.lockClaimable(null, null, 20));
+        assertIndexed(true, () -> instanceRepository.lockClaimable(null, Role.ADMIN, 20));
+        assertIndexed(false, () -> instanceRepository.releaseExpiredClaims(now));
+        assertIndexed(false, () -> instanceRepository.countSubmittedBetween(now.minusDays(1), now));
+        assertIndexed(false, () -> instanceRepository.countCompletedBetween(now.minusDays(1), now));
+        assertIndexed(false, () -> instanceRepository.countCompletionTimesBetween(now.minusDays(1), now));
+    }
+
+    private static Specification<WorkflowInstance> byIds(List<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Runs {@code call} in a transaction that is rolled back, then explains every
+     * statement it sent. {@code ordered} marks queries whose ORDER BY should be
+     * served by the index.
+     */
+    private void assertIndexed(boolean ordered, Runnable call) {
+        List<Captured> statements = new ArrayList<>();
+        CAPTURED.set(statements);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                call.run();
+                status.setRollbackOnly();
+            });
+        } finally {
+            CAPTURED.remove();
+        }
+
+        assertThat(statements).as("captured statements").isNotEmpty();
+        for (Captured statement : statements) {
+            List<String> plan = explain(statement);
+            List<String> problems = isMySql() ? mySqlProblems(plan, ordered) : h2Problems(plan);
+            assertThat(problems).as("%s%nplan: %s", statement.sql(), plan).isEmpty();
+        }
+    }
+
+    private static List<String> h2Problems(List<String> plan) {
+        List<String> problems = new ArrayList<>();
+        for (String line : plan) {
+            if (line.contains(".tableScan"))
+                problems.add("full table scan");
+        }
+        return problems;
+    }
+
+    // One EXPLAIN row per table: "table | type | key | Extra"
+    private static List<String> mySqlProblems(List<String> plan, boolean ordered) {
+        List<String> problems = new ArrayList<>();
+        for (String row : plan) {
+            String[] columns = row.split(" \\| ", -1);
+            if ("ALL".equals(columns[1]))
+                problems.add("full scan of " + columns[0]);
+            if (ordered && columns[3].contains("Using filesort"))
+                problems.add("filesort on " + columns[0]);
+        }
+        return problems;
+    }
+
+    private List<String> explain(Captured statement) {
+        return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            boolean mySql = isMySql(connection);
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+                for (Binding binding : statement.bindings()) {
+                    try {
+                        binding.setter().invoke(explain, binding.args());
+                    } catch (ReflectiveOperationException e) {
+                        throw new IllegalStateException("Could not bind " + binding.setter().getName(), e);
+                    }
+                }
+                List<String> rows = new ArrayList<>();
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows.add(mySql
+                                ? resultSet.getString("table") + " | " + resultSet.getString("type") + " | "
+                                        + resultSet.getString("key") + " | " + resultSet.getString("Extra")
+                                : resultSet.getString(1));
+                    }
+                }
+                return rows;
+            }
+        });
+    }
+
+    private boolean isMySql() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) QueryPlanTest::isMySql));
+    }
+
+    private static boolean isMySql(Connection connection) throws SQLException {
+        return "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+    }
+
+    private record Captured(String sql, List<Binding> bindings) {
+    }
+
+    private record Binding(Method setter, Object[] args) {
+    }
+
+    /**
+     * Wraps the application DataSource so that prepared statements executed
+     * while a capture is active are recorded with their parameters.
+     */
+    @TestConfiguration
+    static class CaptureConfig {
+
+        @Bean
+        static BeanPostProcessor capturingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return "dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                            ? proxy(DataSource.class, dataSource, (call, result) -> result instanceof Connection c
+                                    ? capturing(c)
+                                    : result)
+                            : bean;
+                }
+            };
+        }
+
+        private static Connection capturing(Connection connection) {
+            return proxy(Connection.class, connection, (call, result) -> call.method().getName().equals("prepareStatement")
+                    ? capturing((PreparedStatement) result, (String) call.args()[0])
+                    : result);
+        }
+
+        private static PreparedStatement capturing(PreparedStatement statement, String sql) {
+            List<Binding> bindings = new ArrayList<>();
+            return proxy(PreparedStatement.class, statement, (call, result) -> {
+                String name = call.method().getName();
+                Object[] args = call.args();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    bindings.add(new Binding(call.method(), args.clone()));
+                } else if (name.equals("clearParameters")) {
+                    bindings.clear();
+                } else if (name.startsWith("execute") && CAPTURED.get() != null) {
+                    CAPTURED.get().add(new Captured(sql, List.copyOf(bindings)));
+                }
+                return result;
+            });
+        }
+
+        private record Call(Method method, Object[] args) {
+        }
+
+        private interface ResultHandler {
+            Object handle(Call call, Object result);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, ResultHandler handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                    (proxy, method, args) -> {
+                        Object result;
+                        try {
+                            result = method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        return handler.handle(new Call(method, args), result);
+                    });
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.enterprise.workflow.service;
+
+import com.enterprise.workflow.dto.AnalyticsResponse;
+import com.enterprise.workflow.entity.Workflow;
+import com.enterprise.workflow.entity.WorkflowInstance;
+import com.enterprise.workflow.entity.WorkflowStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Timing harness for the full-scan engine against the stream-over-entities code
+ * it replaced, on synthetic data: 20 workflows, submissions spread over 60 days.
+ * Too slow and memory-hungry for every build, so it only runs on request:
+ *
+ * mvn test -Dtest=ColumnarAnalyticsBenchmarkTest -Dbenchmarks=true [-Dbenchmarks.rows=1000000,10000000]
+ *
+ * The 10M-row run keeps 10M entities for the old code and needs a heap of about 6 GB.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ColumnarAnalyticsBenchmarkTest {
+
+    private static final int WORKFLOWS = 20;
+    private static final int WARM_RUNS = 5;
+
+    @Test
+    void compareWithStreamImplementation() {
+        for (String rows : System.getProperty("benchmarks.rows", "1000000,10000000").split(",")) {
+            run(Integer.parseInt(rows.trim()));
+        }
+    }
+
+    private void run(int rows) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        List<Workflow> workflows = new ArrayList<>();
+        Map<Long, String> titles = new HashMap<>();
+        for (long id = 1; id <= WORKFLOWS; id++) {
+            workflows.add(Workflow.builder().id(id).title("Workflow " + id).build());
+            titles.put(id, "Workflow " + id);
+        }
+
+        WorkflowStatus[] statuses = WorkflowStatus.values();
+        ColumnarAnalyticsEngine.InstanceColumns columns = new ColumnarAnalyticsEngine.InstanceColumns(rows);
+        List<WorkflowInstance> instances = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Workflow workflow = workflows.get(random.nextInt(WORKFLOWS));
+            WorkflowStatus status = statuses[random.nextInt(statuses.length)];
+            LocalDateTime submittedAt = now.minusSeconds(random.nextInt(60 * 86_400));
+            LocalDateTime updatedAt = status == WorkflowStatus.PENDING ? null
+                    : submittedAt.plusSeconds(random.nextInt(5 * 86_400));
+            columns.add(workflow.getId(), status, submittedAt, updatedAt);
+            instances.add(WorkflowInstance.builder().workflow(workflow).status(status).submittedAt(submittedAt)
+                    .updatedAt(updatedAt).build());
+        }
+
+        ColumnarAnalyticsEngine engine = new ColumnarAnalyticsEngine(null, null);
+        long[] columnarMillis = new long[WARM_RUNS];
+        long[] streamMillis = new long[WARM_RUNS];
+        AnalyticsResponse columnar = null;
+        Map<String, Long> streamDistribution = null;
+        for (int run = 0; run < WARM_RUNS; run++) {
+            long start = System.nanoTime();
+            columnar = engine.compute(columns, titles, today);
+            long mid = System.nanoTime();
+            streamDistribution = StreamImplementation.compute(instances);
+            long end = System.nanoTime();
+            columnarMillis[run] = (mid - start) / 1_000_000;
+            streamMillis[run] = (end - mid) / 1_000_000;
+        }
+
+        System.out.printf("rows=%d columnar=%s ms stream=%s ms%n", rows, Arrays.toString(columnarMillis),
+                Arrays.toString(streamMillis));
+        assertThat(columnar.getStatusDistribution()).isEqualTo(streamDistribution);
+        assertThat(columnar.getSummary().getTotalWorkflows()).isEqualTo(rows);
+    }
+
+    // The report code before the columnar engine, over fully loaded entities
+    private static class StreamImplementation {
+
+        static Map<String, Long> compute(List<WorkflowInstance> instances) {
+            long approved = instances.stream().filter(i -> i.getStatus() == WorkflowStatus.APPROVED).count();
+            long pending = instances.stream().filter(i -> i.getStatus() == WorkflowStatus.PENDING).count();
+            double average = instances.stream()
+                    .filter(StreamImplementation::isCompleted)
+                    .filter(i -> i.getUpdatedAt() != null)
+                    .mapToLong(i -> Duration.between(i.getSubmittedAt(), i.getUpdatedAt()).toHours())
+                    .average()
+                    .orElse(0.0);
+
+            Map<String, Double> averageByWorkflow = instances.stream()
+                    .collect(Collectors.groupingBy(i -> i.getWorkflow().getTitle()))
+                    .entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().stream()
+                            .filter(StreamImplementation::isCompleted)
+                            .filter(i -> i.getUpdatedAt() != null)
+                            .mapToLong(i -> Duration.between(i.getSubmittedAt(), i.getUpdatedAt()).toHours())
+                            .average()
+                            .orElse(0.0)));
+
+            LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
+            Map<String, Long> completionsByDate = instances.stream()
+                    .filter(StreamImplementation::isCompleted)
+                    .filter(i -> i.getUpdatedAt() != null && i.getUpdatedAt().isAfter(sevenDaysAgo))
+                    .collect(Collectors.groupingBy(i -> i.getUpdatedAt().format(AnalyticsStore.TREND_FORMAT),
+                            Collectors.counting()));
+
+            // Keep the results reachable so the JIT cannot drop the work
+            if (approved + pending < 0 || average < 0 || averageByWorkflow.isEmpty() && !instances.isEmpty()
+                    || completionsByDate == null)
+                throw new IllegalStateException();
+            return instances.stream()
+                    .collect(Collectors.groupingBy(i -> i.getStatus().name(), Collectors.counting()));
+        }
+
+        private static boolean isCompleted(WorkflowInstance instance) {
+            return instance.getStatus() == WorkflowStatus.APPROVED || instance.getStatus() == WorkflowStatus.REJECTED;
+        }
+    }
+}
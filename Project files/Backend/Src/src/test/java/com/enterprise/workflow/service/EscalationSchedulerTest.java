@@ -0,0 +1,77 @@
+package com.enterprise.workflow.service;
+
+import com.enterprise.workflow.entity.Priority;
+import com.enterprise.workflow.entity.WorkflowInstance;
+import com.enterprise.workflow.entity.WorkflowStatus;
+import com.enterprise.workflow.repository.WorkflowInstanceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Retries of failed due-date actions. The wheel ticks every millisecond and
+ * retries start 20 ms after a failure, so the test drives tick() itself
+ * instead of waiting for the scheduler.
+ */
+class EscalationSchedulerTest {
+
+    private final EscalationService escalationService = mock(EscalationService.class);
+    private final EscalationScheduler scheduler = new EscalationScheduler(mock(WorkflowInstanceRepository.class),
+            escalationService, mock(TransactionTemplate.class), 1, 0, 0, 0, 20, 40);
+
+    @Test
+    void failedEscalationIsRetriedUntilItSucceeds() throws Exception {
+        WorkflowInstance instance = openInstance(LocalDateTime.now().plusNanos(5_000_000));
+        doThrow(new QueryTimeoutException("database unavailable"))
+                .doThrow(new QueryTimeoutException("database unavailable"))
+                .doNothing()
+                .when(escalationService).escalate(any(), any());
+        scheduler.track(instance);
+
+        tickFor(400);
+
+        verify(escalationService, times(3)).escalate(instance.getId(), instance.getDueDate());
+    }
+
+    @Test
+    void newTimersReplaceAPendingRetry() throws Exception {
+        WorkflowInstance instance = openInstance(LocalDateTime.now().plusNanos(5_000_000));
+        doThrow(new QueryTimeoutException("database unavailable"))
+                .doNothing()
+                .when(escalationService).escalate(any(), any());
+        scheduler.track(instance);
+        tickFor(15);
+
+        // Decided before the retry is due
+        instance.setStatus(WorkflowStatus.APPROVED);
+        scheduler.track(instance);
+        tickFor(200);
+
+        verify(escalationService, times(1)).escalate(any(), any());
+    }
+
+    private void tickFor(long millis) throws InterruptedException {
+        long end = System.currentTimeMillis() + millis;
+        while (System.currentTimeMillis() < end) {
+            scheduler.tick();
+            Thread.sleep(1);
+        }
+    }
+
+    private static WorkflowInstance openInstance(LocalDateTime dueDate) {
+        return WorkflowInstance.builder()
+                .id(1L)
+                .status(WorkflowStatus.PENDING)
+                .priority(Priority.HIGH)
+                .dueDate(dueDate)
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.enterprise.workflow.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Percentiles of {@link LatencyHistogram} against the exact values of the same
+ * samples. A percentile is reported as its bucket's upper bound, so it may sit
+ * above the exact value by at most one sub-bucket width (1/32 of the value).
+ */
+class LatencyHistogramTest {
+
+    private static final double PRECISION = 1.0 / 32;
+
+    @Test
+    void percentilesStayWithinBucketPrecision() {
+        Random random = new Random(42);
+        long[] samples = new long[20_000];
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (long) Math.exp(random.nextDouble() * Math.log(30L * 24 * 3600));
+            histogram.record(samples[i]);
+        }
+        Arrays.sort(samples);
+
+        for (double percentile : new double[] { 1, 25, 50, 90, 99, 99.9, 100 }) {
+            long exact = samples[(int) Math.ceil(percentile / 100 * samples.length) - 1];
+            assertThat(histogram.percentile(percentile))
+                    .as("p%s", percentile)
+                    .isBetween(exact, exact + (long) (exact * PRECISION));
+        }
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long seconds = 0; seconds < 32; seconds++) {
+            histogram.record(seconds);
+        }
+
+        assertThat(histogram.percentile(50)).isEqualTo(15);
+        assertThat(histogram.percentile(100)).isEqualTo(31);
+    }
+
+    @Test
+    void maxIsTheExactLargestValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10);
+        histogram.record(1000);
+
+        assertThat(histogram.max()).isEqualTo(1000);
+        assertThat(histogram.percentile(100)).isEqualTo(1000);
+        assertThat(new LatencyHistogram().max()).isZero();
+        assertThat(new LatencyHistogram().percentile(50)).isZero();
+    }
+
+    @Test
+    void removingTheMaximumFallsBackToTheBucketBound() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);
+        histogram.record(5000);
+        histogram.remove(5000);
+
+        assertThat(histogram.max()).isBetween(1000L, 1000 + (long) (1000 * PRECISION));
+
+        histogram.remove(1000);
+        assertThat(histogram.max()).isZero();
+    }
+
+    @Test
+    void mergeMatchesRecordingIntoOneHistogram() {
+        Random random = new Random(7);
+        LatencyHistogram left = new LatencyHistogram();
+        LatencyHistogram right = new LatencyHistogram();
+        LatencyHistogram combined = new LatencyHistogram();
+        for (int i = 0; i < 5_000; i++) {
+            long fast = random.nextInt(600);
+            long slow = 3600 + random.nextInt(7 * 24 * 3600);
+            left.record(fast);
+            right.record(slow);
+            combined.record(fast);
+            combined.record(slow);
+        }
+
+        left.merge(right);
+
+        for (double percentile : new double[] { 10, 50, 75, 90, 99 }) {
+            assertThat(left.percentile(percentile)).as("p%s", percentile)
+                    .isEqualTo(combined.percentile(percentile));
+        }
+        assertThat(left.max()).isEqualTo(combined.max()).isEqualTo(right.max());
+    }
+
+    @Test
+    void bytesRoundTrip() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(0);
+        histogram.record(45, 3);
+        histogram.record(86_400 * 12L);
+
+        LatencyHistogram restored = LatencyHistogram.fromBytes(histogram.toBytes());
+
+        assertThat(restored.percentile(50)).isEqualTo(histogram.percentile(50));
+        assertThat(restored.percentile(90)).isEqualTo(histogram.percentile(90));
+        assertThat(restored.max()).isEqualTo(86_400 * 12L);
+        assertThat(LatencyHistogram.fromBytes(new LatencyHistogram().toBytes()).max()).isZero();
+    }
+}
@@ -0,0 +1,125 @@
+package com.enterprise.workflow.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link RingBuffer} on its own and under contention. The ring is kept small so
+ * that positions wrap around it many times and producers regularly find it
+ * full and consumers find it empty. Waiting threads yield rather than spin: a
+ * thread preempted between claiming a slot and publishing it holds up the
+ * others until it runs again, which on few cores takes a whole time slice.
+ */
+class RingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertThat(new RingBuffer<>(1).capacity()).isEqualTo(1);
+        assertThat(new RingBuffer<>(5).capacity()).isEqualTo(8);
+        assertThat(new RingBuffer<>(8).capacity()).isEqualTo(8);
+    }
+
+    @Test
+    void fullAndEmptyAcrossManyLaps() {
+        RingBuffer<Integer> ring = new RingBuffer<>(4);
+        int next = 0;
+        int expected = 0;
+        for (int lap = 0; lap < 100; lap++) {
+            assertThat(ring.poll()).as("empty at lap %d", lap).isNull();
+            for (int i = 0; i < 4; i++)
+                assertThat(ring.offer(next++)).isTrue();
+            assertThat(ring.offer(-1)).as("full at lap %d", lap).isFalse();
+            assertThat(ring.size()).isEqualTo(4);
+
+            // Take part of the lap and refill, so head and tail sit at different slots
+            assertThat(ring.poll()).isEqualTo(expected++);
+            assertThat(ring.offer(next++)).isTrue();
+            List<Integer> drained = new ArrayList<>();
+            assertThat(ring.drainTo(drained, 10)).isEqualTo(4);
+            for (Integer item : drained)
+                assertThat(item).isEqualTo(expected++);
+            assertThat(ring.size()).isZero();
+        }
+    }
+
+    @Test
+    void concurrentProducersAndConsumersLoseAndRepeatNothing() throws Exception {
+        int producers = 4;
+        int consumers = 3;
+        int perProducer = 100_000;
+        RingBuffer<Long> ring = new RingBuffer<>(64);
+        ExecutorService pool = Executors.newFixedThreadPool(producers + consumers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean producing = new AtomicBoolean(true);
+        try {
+            List<Future<?>> producerResults = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                long base = (long) p * perProducer;
+                producerResults.add(pool.submit(() -> {
+                    start.await();
+                    for (long i = 0; i < perProducer; i++) {
+                        while (!ring.offer(base + i))
+                            Thread.yield();
+                    }
+                    return null;
+                }));
+            }
+            List<Future<List<Long>>> consumerResults = new ArrayList<>();
+            for (int c = 0; c < consumers; c++) {
+                consumerResults.add(pool.submit(() -> {
+                    start.await();
+                    List<Long> taken = new ArrayList<>();
+                    while (true) {
+                        Long item = ring.poll();
+                        if (item != null) {
+                            taken.add(item);
+                        } else if (!producing.get() && ring.size() == 0) {
+                            return taken;
+                        } else {
+                            Thread.yield();
+                        }
+                    }
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> result : producerResults)
+                result.get(60, TimeUnit.SECONDS);
+            producing.set(false);
+
+            Set<Long> seen = new HashSet<>();
+            int total = 0;
+            for (Future<List<Long>> result : consumerResults) {
+                List<Long> taken = result.get(60, TimeUnit.SECONDS);
+                total += taken.size();
+                seen.addAll(taken);
+                // Each producer's items reach any one consumer in the order they were offered
+                long[] last = new long[producers];
+                Arrays.fill(last, -1);
+                for (Long item : taken) {
+                    int producer = (int) (item / perProducer);
+                    assertThat(item).isGreaterThan(last[producer]);
+                    last[producer] = item;
+                }
+            }
+            assertThat(total).as("items taken").isEqualTo(producers * perProducer);
+            assertThat(seen).as("distinct items").hasSize(producers * perProducer);
+            assertThat(ring.poll()).isNull();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.enterprise.workflow.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Firing times of {@link TimingWheel} timers on a one-millisecond tick, so that
+ * deadlines and ticks coincide. Timers on the coarser levels have to cascade
+ * down before they fire; a two-level wheel is used to reach the overflow slot.
+ */
+class TimingWheelTest {
+
+    @Test
+    void timersFireOnTheirDeadlineTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        wheel.schedule(5, "five");
+        wheel.schedule(3, "three");
+
+        assertThat(wheel.advanceTo(2)).isEmpty();
+        assertThat(wheel.advanceTo(4)).containsExactly("three");
+        assertThat(wheel.advanceTo(5)).containsExactly("five");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void passedDeadlinesFireOnTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 100);
+        wheel.schedule(10, "late");
+
+        assertThat(wheel.advanceTo(100)).isEmpty();
+        assertThat(wheel.advanceTo(101)).containsExactly("late");
+    }
+
+    @Test
+    void timersCascadeThroughEveryLevel() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+        // Just past each level's span, so each one starts on a coarser level
+        long[] deadlines = { 63, 64, 65, 4095, 4096, 4097, 262_143, 262_144, 262_145, 300_000 };
+        for (long deadline : deadlines)
+            wheel.schedule(deadline, deadline);
+
+        List<long[]> fired = new ArrayList<>();
+        for (long now = 1; now <= 300_000; now++) {
+            for (Long deadline : wheel.advanceTo(now))
+                fired.add(new long[] { deadline, now });
+        }
+
+        assertThat(fired).hasSize(deadlines.length);
+        for (long[] firing : fired)
+            assertThat(firing[1]).as("tick for deadline %d", firing[0]).isEqualTo(firing[0]);
+    }
+
+    @Test
+    void largeJumpsReturnTimersInDeadlineOrder() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+        Random random = new Random(7);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            long deadline = 1 + random.nextInt(1_000_000);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = 0; now <= 1_000_000; now += 9_973)
+            fired.addAll(wheel.advanceTo(now));
+        fired.addAll(wheel.advanceTo(1_000_000));
+
+        assertThat(fired).hasSize(deadlines.size()).isSorted();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancelledTimersNeverFire() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        TimingWheel.Timer<String> near = wheel.schedule(10, "near");
+        TimingWheel.Timer<String> far = wheel.schedule(10_000, "far");
+        TimingWheel.Timer<String> kept = wheel.schedule(20, "kept");
+
+        assertThat(wheel.cancel(near)).isTrue();
+        assertThat(wheel.cancel(far)).isTrue();
+        assertThat(wheel.cancel(near)).as("second cancel").isFalse();
+        assertThat(wheel.cancel(null)).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        assertThat(wheel.advanceTo(20_000)).containsExactly("kept");
+        assertThat(wheel.cancel(kept)).as("cancel after firing").isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void timersBeyondTheOutermostLevelWaitInItsLastSlot() {
+        // Two levels of 64 slots span 4096 ticks
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 0, 2);
+        long[] deadlines = { 4_095, 4_096, 10_000, 20_000 };
+        for (long deadline : deadlines)
+            wheel.schedule(deadline, deadline);
+
+        List<long[]> fired = new ArrayList<>();
+        for (long now = 1; now <= 20_000; now++) {
+            for (Long deadline : wheel.advanceTo(now))
+                fired.add(new long[] { deadline, now });
+        }
+
+        assertThat(fired).hasSize(deadlines.length);
+        for (long[] firing : fired)
+            assertThat(firing[1]).as("tick for deadline %d", firing[0]).isEqualTo(firing[0]);
+    }
+}
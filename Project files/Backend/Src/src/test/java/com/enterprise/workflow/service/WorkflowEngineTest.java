@@ -0,0 +1,190 @@
+package com.enterprise.workflow.service;
+
+import com.enterprise.workflow.entity.Role;
+import com.enterprise.workflow.entity.User;
+import com.enterprise.workflow.entity.WorkflowApproval;
+import com.enterprise.workflow.entity.WorkflowInstance;
+import com.enterprise.workflow.entity.WorkflowStatus;
+import com.enterprise.workflow.entity.WorkflowStep;
+import com.enterprise.workflow.repository.WorkflowApprovalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Stage and quorum rules of {@link WorkflowEngine#decide}, on entities built in
+ * memory. The approvals a decision saves are collected and passed to the next
+ * decision, as it would see them after loading them again.
+ */
+class WorkflowEngineTest {
+
+    private final User owner = user(1L, Role.USER);
+    private final User manager = user(2L, Role.MANAGER);
+    private final User otherManager = user(3L, Role.MANAGER);
+    private final User admin = user(4L, Role.ADMIN);
+
+    private WorkflowApprovalRepository approvalRepository;
+    private StepTrackingService stepTrackingService;
+    private WorkflowEngine engine;
+    private List<WorkflowApproval> approvals;
+
+    @BeforeEach
+    void setUp() {
+        approvalRepository = mock(WorkflowApprovalRepository.class);
+        stepTrackingService = mock(StepTrackingService.class);
+        engine = new WorkflowEngine(mock(WorkflowCatalog.class), approvalRepository, stepTrackingService);
+        approvals = new ArrayList<>();
+        when(approvalRepository.save(any())).thenAnswer(invocation -> {
+            approvals.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+    }
+
+    @Test
+    void stageWaitsForItsQuorum() {
+        WorkflowStep review = step(10L, 1, Role.MANAGER, 2);
+        WorkflowStep signOff = step(20L, 2, Role.ADMIN, 1);
+        List<WorkflowStep> steps = List.of(review, signOff);
+        WorkflowInstance instance = instanceAt(review);
+
+        WorkflowEngine.Outcome first = decide(instance, manager, WorkflowStatus.APPROVED, steps);
+        assertThat(first.error()).isNull();
+        assertThat(first.branch()).isEqualTo(review);
+        assertThat(first.advancedTo()).isNull();
+        assertThat(instance.getCurrentStep()).isEqualTo(review);
+        assertThat(instance.getStatus()).isEqualTo(WorkflowStatus.PENDING);
+        verify(stepTrackingService, never()).exitStep(any(), any());
+
+        WorkflowEngine.Outcome second = decide(instance, otherManager, WorkflowStatus.APPROVED, steps);
+        assertThat(second.error()).isNull();
+        assertThat(second.advancedTo()).isEqualTo(signOff);
+        assertThat(instance.getCurrentStep()).isEqualTo(signOff);
+        assertThat(instance.getStatus()).isEqualTo(WorkflowStatus.PENDING);
+        verify(stepTrackingService).exitStep(instance, review);
+        verify(stepTrackingService).enterSteps(instance, List.of(signOff));
+    }
+
+    @Test
+    void lastStageApprovesTheInstance() {
+        WorkflowStep review = step(10L, 1, Role.MANAGER, 1);
+        WorkflowStep signOff = step(20L, 2, Role.ADMIN, 1);
+        List<WorkflowStep> steps = List.of(review, signOff);
+        WorkflowInstance instance = instanceAt(review);
+
+        assertThat(decide(instance, manager, WorkflowStatus.APPROVED, steps).advancedTo()).isEqualTo(signOff);
+        WorkflowEngine.Outcome last = decide(instance, admin, WorkflowStatus.APPROVED, steps);
+
+        assertThat(last.error()).isNull();
+        assertThat(last.advancedTo()).isNull();
+        assertThat(instance.getStatus()).isEqualTo(WorkflowStatus.APPROVED);
+        assertThat(approvals).hasSize(2);
+    }
+
+    @Test
+    void rejectionEndsTheInstanceWithoutCountingTowardsTheQuorum() {
+        WorkflowStep review = step(10L, 1, Role.MANAGER, 2);
+        WorkflowStep signOff = step(20L, 2, Role.ADMIN, 1);
+        List<WorkflowStep> steps = List.of(review, signOff);
+        WorkflowInstance instance = instanceAt(review);
+        decide(instance, manager, WorkflowStatus.APPROVED, steps);
+
+        WorkflowEngine.Outcome outcome = decide(instance, otherManager, WorkflowStatus.REJECTED, steps);
+
+        assertThat(outcome.error()).isNull();
+        assertThat(outcome.advancedTo()).isNull();
+        assertThat(instance.getStatus()).isEqualTo(WorkflowStatus.REJECTED);
+        assertThat(instance.getCurrentStep()).isEqualTo(review);
+        assertThat(approvals).hasSize(1);
+        verify(stepTrackingService, never()).enterSteps(any(), any());
+    }
+
+    @Test
+    void parallelBranchesAdvanceOnlyWhenEveryBranchHasItsQuorum() {
+        WorkflowStep finance = step(10L, 1, Role.MANAGER, 1);
+        WorkflowStep legal = step(11L, 1, Role.ADMIN, 1);
+        WorkflowStep signOff = step(20L, 2, Role.ADMIN, 1);
+        List<WorkflowStep> steps = List.of(finance, legal, signOff);
+        WorkflowInstance instance = instanceAt(finance);
+
+        WorkflowEngine.Outcome first = decide(instance, manager, WorkflowStatus.APPROVED, steps);
+        assertThat(first.branch()).isEqualTo(finance);
+        assertThat(first.advancedTo()).isNull();
+
+        WorkflowEngine.Outcome second = decide(instance, admin, WorkflowStatus.APPROVED, steps);
+        assertThat(second.branch()).isEqualTo(legal);
+        assertThat(second.advancedTo()).isEqualTo(signOff);
+        assertThat(instance.getCurrentStep()).isEqualTo(signOff);
+    }
+
+    @Test
+    void oneApproverCannotApproveTwoBranchesOfAStage() {
+        WorkflowStep first = step(10L, 1, Role.MANAGER, 1);
+        WorkflowStep second = step(11L, 1, Role.MANAGER, 1);
+        WorkflowStep signOff = step(20L, 2, Role.ADMIN, 1);
+        List<WorkflowStep> steps = List.of(first, second, signOff);
+        WorkflowInstance instance = instanceAt(first);
+        decide(instance, manager, WorkflowStatus.APPROVED, steps);
+
+        WorkflowEngine.Outcome again = decide(instance, manager, WorkflowStatus.APPROVED, steps);
+
+        assertThat(again.error()).isEqualTo("You have already approved this step.");
+        assertThat(approvals).hasSize(1);
+        assertThat(instance.getCurrentStep()).isEqualTo(first);
+
+        WorkflowEngine.Outcome other = decide(instance, otherManager, WorkflowStatus.APPROVED, steps);
+        assertThat(other.branch()).isEqualTo(second);
+        assertThat(other.advancedTo()).isEqualTo(signOff);
+    }
+
+    @Test
+    void refusedDecisionsLeaveTheInstanceUntouched() {
+        WorkflowStep review = step(10L, 1, Role.MANAGER, 1);
+        List<WorkflowStep> steps = List.of(review);
+        WorkflowInstance instance = instanceAt(review);
+
+        assertThat(decide(instance, admin, WorkflowStatus.APPROVED, steps).error())
+                .isEqualTo("Step 'Step 10' needs approval from MANAGER");
+        assertThat(decide(instance, owner, WorkflowStatus.APPROVED, steps).error())
+                .isEqualTo("You cannot decide your own request.");
+        assertThat(instance.getStatus()).isEqualTo(WorkflowStatus.PENDING);
+        assertThat(instance.getUpdatedAt()).isNull();
+        verify(approvalRepository, never()).save(any());
+    }
+
+    private WorkflowEngine.Outcome decide(WorkflowInstance instance, User approver, WorkflowStatus decision,
+            List<WorkflowStep> steps) {
+        return engine.decide(instance, approver, decision, "remarks", steps, List.copyOf(approvals));
+    }
+
+    private WorkflowInstance instanceAt(WorkflowStep step) {
+        return WorkflowInstance.builder()
+                .id(100L)
+                .user(owner)
+                .status(WorkflowStatus.PENDING)
+                .currentStep(step)
+                .build();
+    }
+
+    private static WorkflowStep step(Long id, int order, Role role, int approvalsRequired) {
+        return WorkflowStep.builder()
+                .id(id)
+                .stepOrder(order)
+                .name("Step " + id)
+                .requiredRole(role)
+                .approvalsRequired(approvalsRequired)
+                .build();
+    }
+
+    private static User user(Long id, Role role) {
+        return User.builder().id(id).username("user" + id).fullName("User " + id).role(role).build();
+    }
+}
@@ -0,0 +1,224 @@
+package com.enterprise.workflow.service;
+
+import com.enterprise.workflow.dto.WorkflowInstanceRequest;
+import com.enterprise.workflow.dto.WorkflowInstanceResponse;
+import com.enterprise.workflow.entity.Priority;
+import com.enterprise.workflow.entity.WorkflowInstance;
+import com.enterprise.workflow.entity.WorkflowStatus;
+import com.enterprise.workflow.exception.GlobalExceptionHandler;
+import com.enterprise.workflow.exception.InstanceConflictException;
+import com.enterprise.workflow.repository.WorkflowInstanceRepository;
+import com.enterprise.workflow.repository.WorkflowRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Concurrent updates of the same instance through the optimistic-lock retry in
+ * WorkflowInstanceService. Each call runs the way a request does, with its own
+ * open-session-in-view EntityManager bound to the thread, so a stale instance
+ * is one loaded before someone else's commit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class WorkflowInstanceConcurrencyTest {
+
+    private static final LocalDateTime DUE_DATE = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+    @Autowired
+    private WorkflowInstanceService instanceService;
+    @Autowired
+    private WorkflowRepository workflowRepository;
+    @Autowired
+    private WorkflowInstanceRepository instanceRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private int configuredMaxAttempts;
+
+    @BeforeEach
+    void rememberMaxAttempts() {
+        configuredMaxAttempts = (Integer) ReflectionTestUtils.getField(target(), "maxTransitionAttempts");
+    }
+
+    @AfterEach
+    void restoreMaxAttempts() {
+        setMaxAttempts(configuredMaxAttempts);
+    }
+
+    @Test
+    void concurrentUpdatesOfDifferentFieldsAreAllKept() throws Exception {
+        // Enough attempts that every writer eventually lands; none of these changes collide
+        setMaxAttempts(50);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++)
+            ids.add(submit());
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<WorkflowInstanceResponse>> results = new ArrayList<>();
+        try {
+            for (Long id : ids) {
+                results.add(pool.submit(afterLatch(start, () -> instanceService.assignTask(id, "manager", "admin"))));
+                results.add(pool.submit(afterLatch(start,
+                        () -> instanceService.updateTaskDetails(id, DUE_DATE, Priority.HIGH, "admin"))));
+                // The same decision twice is applied once and reported as done to both callers
+                results.add(pool.submit(afterLatch(start,
+                        () -> instanceService.updateStatus(id, WorkflowStatus.APPROVED, "approved", "admin"))));
+                results.add(pool.submit(afterLatch(start,
+                        () -> instanceService.updateStatus(id, WorkflowStatus.APPROVED, "approved", "admin"))));
+            }
+            start.countDown();
+            for (Future<WorkflowInstanceResponse> result : results)
+                result.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (Long id : ids) {
+            WorkflowInstance instance = inRequest(() -> {
+                WorkflowInstance loaded = instanceRepository.findById(id).orElseThrow();
+                loaded.getAssignedTo().getUsername();
+                return loaded;
+            });
+            assertThat(instance.getStatus()).as("status of %d", id).isEqualTo(WorkflowStatus.APPROVED);
+            assertThat(instance.getRemarks()).as("remarks of %d", id).isEqualTo("approved");
+            assertThat(instance.getAssignedTo().getUsername()).as("assignee of %d", id).isEqualTo("manager");
+            assertThat(instance.getPriority()).as("priority of %d", id).isEqualTo(Priority.HIGH);
+            assertThat(instance.getDueDate()).as("due date of %d", id).isEqualTo(DUE_DATE);
+        }
+    }
+
+    @Test
+    void conflictingDecisionGetsConflictWithTheCurrentState() throws Exception {
+        Long id = submit();
+
+        InstanceConflictException conflict = inRequest(() -> {
+            // Load the instance into this request, then let another user decide it first
+            instanceRepository.findById(id).orElseThrow();
+            inOtherRequest(() -> instanceService.updateStatus(id, WorkflowStatus.APPROVED, "approved", "admin"));
+            try {
+                instanceService.updateStatus(id, WorkflowStatus.REJECTED, "rejected", "admin");
+                return null;
+            } catch (InstanceConflictException e) {
+                return e;
+            }
+        });
+
+        assertThat(conflict).as("conflict for a competing decision").isNotNull();
+        assertThat(conflict.getCurrent().getId()).isEqualTo(id);
+        assertThat(conflict.getCurrent().getStatus()).isEqualTo(WorkflowStatus.APPROVED);
+        assertThat(conflict.getCurrent().getRemarks()).isEqualTo("approved");
+
+        ResponseEntity<Map<String, Object>> response = new GlobalExceptionHandler().handleInstanceConflict(conflict);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).containsEntry("current", conflict.getCurrent());
+        assertThat(inRequest(() -> instanceRepository.findById(id).orElseThrow().getStatus()))
+                .isEqualTo(WorkflowStatus.APPROVED);
+    }
+
+    @Test
+    void retriesStopAtTheConfiguredAttempts() throws Exception {
+        // One attempt: a concurrent change to other fields is not re-applied
+        setMaxAttempts(1);
+        Long first = submit();
+        assertThatThrownBy(() -> assignAfterConcurrentEdit(first))
+                .isInstanceOf(InstanceConflictException.class);
+        WorkflowInstance unchanged = inRequest(() -> instanceRepository.findById(first).orElseThrow());
+        assertThat(unchanged.getPriority()).isEqualTo(Priority.HIGH);
+
+        // Two attempts: the assignment is re-applied on the fresh state and both changes are kept
+        setMaxAttempts(2);
+        Long second = submit();
+        String assignee = assignAfterConcurrentEdit(second);
+        WorkflowInstance merged = inRequest(() -> {
+            WorkflowInstance loaded = instanceRepository.findById(second).orElseThrow();
+            loaded.getAssignedTo().getUsername();
+            return loaded;
+        });
+        assertThat(merged.getPriority()).isEqualTo(Priority.HIGH);
+        assertThat(merged.getAssignedTo().getUsername()).isEqualTo(assignee);
+    }
+
+    // Assigns from a request that loaded the instance before another user changed its priority
+    private String assignAfterConcurrentEdit(Long id) throws Exception {
+        return inRequest(() -> {
+            WorkflowInstance stale = instanceRepository.findById(id).orElseThrow();
+            String assignee = stale.getAssignedTo() != null && stale.getAssignedTo().getUsername().equals("manager")
+                    ? "admin"
+                    : "manager";
+            inOtherRequest(() -> instanceService.updateTaskDetails(id, null, Priority.HIGH, "admin"));
+            instanceService.assignTask(id, assignee, "admin");
+            return assignee;
+        });
+    }
+
+    private Long submit() throws Exception {
+        Long workflowId = workflowRepository.findAll().get(0).getId();
+        return inRequest(() -> instanceService.submitWorkflow(WorkflowInstanceRequest.builder()
+                .workflowId(workflowId)
+                .description("Concurrency test")
+                .priority(Priority.LOW)
+                .build(), "user").getId());
+    }
+
+    private <T> Callable<T> afterLatch(CountDownLatch start, Callable<T> call) {
+        return () -> {
+            start.await();
+            return inRequest(call);
+        };
+    }
+
+    private <T> T inOtherRequest(Callable<T> call) throws Exception {
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            return other.submit(() -> inRequest(call)).get(30, TimeUnit.SECONDS);
+        } finally {
+            other.shutdownNow();
+        }
+    }
+
+    // Binds an EntityManager to the thread for the duration of the call, as open-session-in-view does
+    private <T> T inRequest(Callable<T> call) throws Exception {
+        TransactionSynchronizationManager.bindResource(entityManagerFactory,
+                new EntityManagerHolder(entityManagerFactory.createEntityManager()));
+        try {
+            return call.call();
+        } finally {
+            ((EntityManagerHolder) TransactionSynchronizationManager.unbindResource(entityManagerFactory))
+                    .getEntityManager().close();
+        }
+    }
+
+    private void setMaxAttempts(int attempts) {
+        ReflectionTestUtils.setField(target(), "maxTransitionAttempts", attempts);
+    }
+
+    private WorkflowInstanceService target() {
+        return AopTestUtils.getTargetObject(instanceService);
+    }
+}
@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import api from '../services/api';
+import api, { getAllPages } from '../services/api';
 import { Card, CardHeader, CardContent } from '../components/ui/Card';
 import { Loader2, PlayCircle, Clock, CheckCircle2, XCircle, LayoutDashboard, Paperclip, Download } from 'lucide-react';
 import FileUploader from '../components/FileUploader';
@@ -24,12 +24,13 @@ const Dashboard = () => {
 
     const fetchData = async () => {
         try {
-            const [workflowsRes, instancesRes] = await Promise.all([
+            // Every page of the user's own requests, which the counts below are taken from
+            const [workflowsRes, instances] = await Promise.all([
                 api.get('/workflows'),
-                api.get('/instances/my')
+                getAllPages('/instances/my')
             ]);
             setAvailableWorkflows(workflowsRes.data);
-            setMyInstances(instancesRes.data);
+            setMyInstances(instances);
         } catch (error) {
             console.error("Error loading dashboard data", error);
         } finally {
@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import api from '../services/api';
+import { getAllPages } from '../services/api';
 import { Card } from '../components/ui/Card';
 import { Clock, CheckCircle2, XCircle, Loader2, Activity } from 'lucide-react';
 
@@ -11,7 +11,7 @@ const MyTasks = () => {
 
     const fetchTasks = async () => {
         try {
-            const { data } = await api.get('/instances/my');
+            const data = await getAllPages('/instances/my');
             setTasks(data);
 
             // If modal is open, also update the selectedTask from the new data
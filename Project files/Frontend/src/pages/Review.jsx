@@ -1,11 +1,13 @@
 import React, { useState, useEffect } from 'react';
-import api from '../services/api';
+import api, { getPage } from '../services/api';
 import { Card } from '../components/ui/Card';
 import { Check, X, Loader2, Activity, CheckCircle2, Clock, XCircle, Search, Filter, Calendar, RotateCcw, Paperclip } from 'lucide-react';
 
 const Review = () => {
     const [instances, setInstances] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
     const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [selectedInstance, setSelectedInstance] = useState(null);
     const [showTrackingModal, setShowTrackingModal] = useState(false);
 
@@ -25,16 +27,20 @@ const Review = () => {
         return () => clearTimeout(delayDebounceFn);
     }, [filters]);
 
+    const filterParams = () => {
+        const params = {};
+        if (filters.status) params.status = filters.status;
+        if (filters.query) params.query = filters.query;
+        if (filters.date) params.date = filters.date;
+        if (filters.owner) params.owner = filters.owner;
+        return params;
+    };
+
     const fetchInstances = async () => {
         try {
-            const params = new URLSearchParams();
-            if (filters.status) params.append('status', filters.status);
-            if (filters.query) params.append('query', filters.query);
-            if (filters.date) params.append('date', filters.date);
-            if (filters.owner) params.append('owner', filters.owner);
-
-            const { data } = await api.get(`/instances/all?${params.toString()}`);
-            setInstances(data);
+            const page = await getPage('/instances/all', filterParams());
+            setInstances(page.items);
+            setNextCursor(page.nextCursor);
         } catch (error) {
             console.error("Failed to fetch instances");
         } finally {
@@ -42,11 +48,25 @@ const Review = () => {
         }
     };
 
+    const loadMore = async () => {
+        setLoadingMore(true);
+        try {
+            const page = await getPage('/instances/all', filterParams(), nextCursor);
+            setInstances(prev => prev.concat(page.items));
+            setNextCursor(page.nextCursor);
+        } catch (error) {
+            console.error("Failed to fetch instances");
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     const handleAction = async (id, status) => {
         const remarks = prompt(`Enter remarks for ${status} (optional):`) || "";
         try {
-            await api.put(`/instances/${id}/status`, { status, remarks });
-            fetchInstances();
+            // Update the row in place so the pages already loaded stay on screen
+            const { data } = await api.put(`/instances/${id}/status`, { status, remarks });
+            setInstances(prev => prev.map(inst => inst.id === id ? data : inst));
         } catch (error) {
             alert("Action failed");
         }
@@ -188,6 +208,19 @@ const Review = () => {
                 </table>
             </Card>
 
+            {nextCursor && (
+                <div className="flex justify-center">
+                    <button
+                        onClick={loadMore}
+                        disabled={loadingMore}
+                        className="flex items-center gap-2 px-4 py-2 text-sm text-slate-300 bg-slate-900 border border-slate-800 hover:bg-slate-800 rounded-lg transition-all disabled:opacity-50"
+                    >
+                        {loadingMore && <Loader2 className="animate-spin" size={16} />}
+                        Load more
+                    </button>
+                </div>
+            )}
+
             {/* Tracking Modal */}
             {showTrackingModal && selectedInstance && (
                 <div className="fixed inset-0 bg-black/80 backdrop-blur-sm flex items-center justify-center p-4 z-50">
@@ -1,11 +1,13 @@
 import React, { useState, useEffect } from 'react';
-import api from '../../services/api';
+import { getPage } from '../../services/api';
 import { Card } from '../../components/ui/Card';
 import { Loader2, ShieldCheck, User, Clock, Info } from 'lucide-react';
 
 const AuditLogs = () => {
     const [logs, setLogs] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
     const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
 
     useEffect(() => {
         fetchLogs();
@@ -13,8 +15,9 @@ const AuditLogs = () => {
 
     const fetchLogs = async () => {
         try {
-            const { data } = await api.get('/admin/audit-logs');
-            setLogs(data);
+            const page = await getPage('/admin/audit-logs');
+            setLogs(page.items);
+            setNextCursor(page.nextCursor);
         } catch (error) {
             console.error("Failed to fetch audit logs");
         } finally {
@@ -22,6 +25,19 @@ const AuditLogs = () => {
         }
     };
 
+    const loadMore = async () => {
+        setLoadingMore(true);
+        try {
+            const page = await getPage('/admin/audit-logs', {}, nextCursor);
+            setLogs(prev => prev.concat(page.items));
+            setNextCursor(page.nextCursor);
+        } catch (error) {
+            console.error("Failed to fetch audit logs");
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     if (loading) return (
         <div className="flex flex-col items-center justify-center p-12 space-y-4">
             <Loader2 className="animate-spin text-blue-500" size={32} />
@@ -40,7 +56,7 @@ const AuditLogs = () => {
                     <p className="text-slate-400">Read-only record of all system activities</p>
                 </div>
                 <div className="px-4 py-2 bg-slate-800/50 border border-slate-700 rounded-lg text-xs font-mono text-slate-400">
-                    {logs.length} Total activities recorded
+                    {logs.length}{nextCursor ? '+' : ''} activities recorded
                 </div>
             </div>
 
@@ -104,6 +120,19 @@ const AuditLogs = () => {
                     </table>
                 </div>
             </Card>
+
+            {nextCursor && (
+                <div className="flex justify-center">
+                    <button
+                        onClick={loadMore}
+                        disabled={loadingMore}
+                        className="flex items-center gap-2 px-4 py-2 text-sm text-slate-300 bg-slate-900 border border-slate-800 hover:bg-slate-800 rounded-lg transition-all disabled:opacity-50"
+                    >
+                        {loadingMore && <Loader2 className="animate-spin" size={16} />}
+                        Load more
+                    </button>
+                </div>
+            )}
         </div>
     );
 };
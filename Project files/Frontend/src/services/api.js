@@ -36,3 +36,24 @@ api.interceptors.response.use(
 );
 
 export default api;
+
+// List endpoints return one page as the body and the token for the next page in
+// this header, which is absent on the last page
+const NEXT_CURSOR_HEADER = 'x-next-cursor';
+
+export const getPage = async (url, params = {}, cursor = null) => {
+    const response = await api.get(url, { params: cursor ? { ...params, cursor } : params });
+    return { items: response.data, nextCursor: response.headers[NEXT_CURSOR_HEADER] || null };
+};
+
+// Follows the cursor to the last page; for lists that are small per user
+export const getAllPages = async (url, params = {}) => {
+    let items = [];
+    let cursor = null;
+    do {
+        const page = await getPage(url, params, cursor);
+        items = items.concat(page.items);
+        cursor = page.nextCursor;
+    } while (cursor);
+    return items;
+};